@@ -3,39 +3,79 @@ package com.timetuneai.app;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.os.Build;
+import android.os.SystemClock;
 import android.util.Log;
 
+/**
+ * Restores reminders after a reboot or app update. Alarms do not survive
+ * either, so the receiver stays alive with goAsync() while a background
+ * thread reads the due-time index of the reminder store and arms the alarm
+ * for the earliest reminder. The foreground service is not started here:
+ * the alarm starts it when something is due, and it re-arms from then on.
+ *
+ * A time zone change moves every wall-clock reminder to a new instant, so
+ * the stored due times are resolved again before the alarm is re-armed; a
+ * running service reloads from the repository's replace notification.
+ *
+ * After a boot, the time from boot to the armed alarm is recorded through
+ * LatencyTracer, whose histogram is persisted; for app updates uptime says
+ * nothing about the receiver, so nothing is recorded.
+ */
 public class BootReceiver extends BroadcastReceiver {
     private static final String TAG = "BootReceiver";
-    
+
     @Override
     public void onReceive(Context context, Intent intent) {
         String action = intent.getAction();
         Log.d(TAG, "Received broadcast: " + action);
-        
+
         if (Intent.ACTION_BOOT_COMPLETED.equals(action) ||
             Intent.ACTION_MY_PACKAGE_REPLACED.equals(action) ||
             Intent.ACTION_PACKAGE_REPLACED.equals(action)) {
-            
-            Log.d(TAG, "Starting reminder background service after boot/update with delay");
-            
-            // Start the background service with a slight delay to ensure system is ready
-            Intent serviceIntent = new Intent(context, ReminderBackgroundService.class);
-            
-            // Use a handler to delay the service start
-            new android.os.Handler().postDelayed(() -> {
+
+            final PendingResult result = goAsync();
+            final Context appContext = context.getApplicationContext();
+            final boolean afterBoot = Intent.ACTION_BOOT_COMPLETED.equals(action);
+            new Thread(() -> {
+                try {
+                    restoreAlarm(appContext, afterBoot);
+                } finally {
+                    result.finish();
+                }
+            }, "BootRestore").start();
+        } else if (Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            final PendingResult result = goAsync();
+            final Context appContext = context.getApplicationContext();
+            new Thread(() -> {
                 try {
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                        context.startForegroundService(serviceIntent);
-                    } else {
-                        context.startService(serviceIntent);
-                    }
-                    Log.d(TAG, "Background service started successfully");
-                } catch (Exception e) {
-                    Log.e(TAG, "Error starting background service: " + e.getMessage());
+                    ReminderRepository.get(appContext).resolveDueTimes();
+                    restoreAlarm(appContext, false);
+                } finally {
+                    result.finish();
                 }
-            }, 5000); // 5 second delay
+            }, "TimeZoneRestore").start();
+        }
+    }
+
+    private static void restoreAlarm(Context context, boolean afterBoot) {
+        long started = SystemClock.elapsedRealtime();
+        try {
+            // Opening the repository maps the store index; no reminder text is decoded
+            ReminderRepository repository = ReminderRepository.get(context);
+            long now = System.currentTimeMillis();
+            long nextDueAt = ReminderEngine.nextDueAt(repository, now);
+            new ReminderScheduler(context).arm(nextDueAt, now);
+
+            long armedAt = SystemClock.elapsedRealtime();
+            if (afterBoot) {
+                // elapsedRealtime counts from boot, so it is the boot-to-alarm time
+                LatencyTracer.get(context).markBootAlarmArmed(armedAt);
+            }
+            Log.d(TAG, "Restored alarm for " + nextDueAt + " in " + (armedAt - started)
+                + "ms, " + armedAt + "ms after boot");
+        } catch (Exception e) {
+            Log.e(TAG, "Error restoring reminder alarm: " + e.getMessage());
+            Metrics.get().increment(Metrics.FAILURES);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.timetuneai.app;
+
+import android.app.NotificationManager;
+import android.content.Context;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * What dismissing or snoozing a call does to its reminders, whichever
+ * surface showed it: the native call screen, the overlay, the notification
+ * or the web call screen over CallChannel. Dismissing completes every
+ * reminder of the session and snoozing moves each one SNOOZE_MS later, as
+ * the main app's call screen does.
+ *
+ * Writes go through ReminderRepository with a version newer than anything
+ * it holds, so its listeners hand them to the engine and re-arm the alarm,
+ * and the main app picks them up on its next load. They run on a worker
+ * thread so a button press never waits on the store. The backup call
+ * notification of each reminder is cancelled straight away.
+ */
+public final class CallActions {
+    private static final String TAG = "CallActions";
+    public static final long SNOOZE_MS = 5 * DueTimes.MINUTE_MS;
+
+    private CallActions() {}
+
+    /** Completes every reminder of the call session. */
+    public static void dismiss(Context context, final int[] reminderIds) {
+        final ReminderRepository repository = ReminderRepository.get(context);
+        cancelNotifications(context, reminderIds);
+        new Thread(() -> {
+            for (int reminderId : reminderIds) {
+                try {
+                    if (!repository.setCompleted(reminderId, true, repository.nextVersion(reminderId))) {
+                        Log.w(TAG, "Could not complete reminder " + reminderId);
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error completing reminder " + reminderId + ": " + e.getMessage());
+                }
+            }
+            Log.d(TAG, "Dismissed " + reminderIds.length + " reminder(s)");
+        }, "CallDismiss").start();
+    }
+
+    /** Moves every reminder of the call session to SNOOZE_MS after {@code now}. */
+    public static void snooze(Context context, final int[] reminderIds, long now) {
+        final ReminderRepository repository = ReminderRepository.get(context);
+        cancelNotifications(context, reminderIds);
+        Date until = new Date(now + SNOOZE_MS);
+        final String date = new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(until);
+        final String time = new SimpleDateFormat("HH:mm", Locale.US).format(until);
+        new Thread(() -> {
+            for (int reminderId : reminderIds) {
+                try {
+                    String json = repository.readJson(reminderId);
+                    if (json == null) {
+                        continue;
+                    }
+                    JSONObject reminder = new JSONObject(json);
+                    reminder.put("date", date);
+                    reminder.put("time", time);
+                    if (!repository.upsert(reminder.toString(), repository.nextVersion(reminderId))) {
+                        Log.w(TAG, "Could not snooze reminder " + reminderId);
+                    }
+                } catch (Exception e) {
+                    Log.e(TAG, "Error snoozing reminder " + reminderId + ": " + e.getMessage());
+                }
+            }
+            Log.d(TAG, "Snoozed " + reminderIds.length + " reminder(s) to " + date + " " + time);
+        }, "CallSnooze").start();
+    }
+
+    // The pipeline posts each call's notification under its reminder id + 10000
+    private static void cancelNotifications(Context context, int[] reminderIds) {
+        NotificationManager notificationManager =
+            (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        if (notificationManager == null) {
+            return;
+        }
+        for (int reminderId : reminderIds) {
+            notificationManager.cancel(reminderId + 10000);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.timetuneai.app;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.webkit.WebMessage;
+import android.webkit.WebMessagePort;
+import android.webkit.WebView;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Message channel from native code to the web call screen. After the page
+ * loads, one end of a WebMessagePort pair is handed to it (see
+ * src/services/callChannel.js); payloads then travel as JSON text, so no
+ * script is compiled per message and any reminder text is safe to send.
+ *
+ * Messages queued in the same looper turn are sent together as one JSON
+ * array. The page acknowledges each call it shows on the same port, and
+ * reports a dismiss or snooze with the ids of every reminder the call rang
+ * for; those are applied through CallActions. Main thread only; the port
+ * closes with its WebView.
+ */
+public class CallChannel {
+    private static final String TAG = "CallChannel";
+    // Must match PORT_MESSAGE in src/services/callChannel.js
+    private static final String PORT_MESSAGE = "timetuneai-call-port";
+
+    public interface Listener {
+        /** The page has shown the call for this reminder. */
+        void onCallAcknowledged(int reminderId);
+
+        /** The user dismissed or snoozed the call on the page; its reminders are already updated. */
+        default void onCallEnded() {
+        }
+    }
+
+    private final Context context;
+    private final WebMessagePort port;
+    private Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private JSONArray batch = new JSONArray();
+    private boolean flushPosted;
+
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flushPosted = false;
+            if (batch.length() == 0) {
+                return;
+            }
+            JSONArray messages = batch;
+            batch = new JSONArray();
+            try {
+                port.postMessage(new WebMessage(messages.toString()));
+            } catch (Exception e) {
+                Log.e(TAG, "Error posting call messages: " + e.getMessage());
+            }
+        }
+    };
+
+    /** Opens a channel to the page loaded in {@code webView}. */
+    public static CallChannel open(WebView webView) {
+        WebMessagePort[] ports = webView.createWebMessageChannel();
+        // file:// pages have an opaque origin, which only the wildcard matches
+        webView.postWebMessage(new WebMessage(PORT_MESSAGE, new WebMessagePort[]{ports[1]}), Uri.EMPTY);
+        return new CallChannel(webView.getContext().getApplicationContext(), ports[0]);
+    }
+
+    private CallChannel(Context context, WebMessagePort port) {
+        this.context = context;
+        this.port = port;
+        port.setWebMessageCallback(new WebMessagePort.WebMessageCallback() {
+            @Override
+            public void onMessage(WebMessagePort port, WebMessage message) {
+                receive(message.getData());
+            }
+        });
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Shows the reminder on the call screen, optionally already answered.
+     * {@code sessionIds} lists every reminder the call rings for, which the
+     * page completes or snoozes together.
+     */
+    public void showCall(int reminderId, int[] sessionIds, String title, String description, String date,
+                         String time, boolean answered) {
+        try {
+            JSONObject reminder = new JSONObject();
+            reminder.put("id", reminderId);
+            JSONArray ids = new JSONArray();
+            for (int id : sessionIds) {
+                ids.put(id);
+            }
+            reminder.put("sessionIds", ids);
+            reminder.put("title", title != null ? title : "");
+            reminder.put("description", description != null ? description : "");
+            reminder.put("date", date != null ? date : "");
+            reminder.put("time", time != null ? time : "");
+            reminder.put("category", "personal");
+            reminder.put("priority", "medium");
+            reminder.put("isCompleted", false);
+
+            JSONObject message = new JSONObject();
+            message.put("type", "trigger");
+            message.put("reminder", reminder);
+            message.put("answered", answered);
+            enqueue(message);
+        } catch (Exception e) {
+            Log.e(TAG, "Error building call message: " + e.getMessage());
+        }
+    }
+
+    public void dismiss() {
+        try {
+            enqueue(new JSONObject().put("type", "dismiss"));
+        } catch (Exception e) {
+            Log.e(TAG, "Error building dismiss message: " + e.getMessage());
+        }
+    }
+
+    private void receive(String data) {
+        try {
+            JSONObject message = new JSONObject(data);
+            String type = message.optString("type");
+            if ("ack".equals(type)) {
+                if (listener != null) {
+                    listener.onCallAcknowledged(message.optInt("id"));
+                }
+            } else if ("dismissed".equals(type) || "snoozed".equals(type)) {
+                int[] reminderIds = sessionIds(message);
+                if ("dismissed".equals(type)) {
+                    CallActions.dismiss(context, reminderIds);
+                } else {
+                    CallActions.snooze(context, reminderIds, System.currentTimeMillis());
+                }
+                if (listener != null) {
+                    listener.onCallEnded();
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading call screen message: " + e.getMessage());
+        }
+    }
+
+    // Every reminder the call rang for; the lone id when the page sent no list
+    private static int[] sessionIds(JSONObject message) {
+        JSONArray ids = message.optJSONArray("sessionIds");
+        if (ids == null || ids.length() == 0) {
+            return new int[]{message.optInt("id")};
+        }
+        int[] reminderIds = new int[ids.length()];
+        for (int i = 0; i < reminderIds.length; i++) {
+            reminderIds[i] = ids.optInt(i);
+        }
+        return reminderIds;
+    }
+
+    private void enqueue(JSONObject message) {
+        batch.put(message);
+        if (!flushPosted) {
+            flushPosted = true;
+            handler.post(flushRunnable);
+        }
+    }
+}
@@ -0,0 +1,546 @@
+package com.timetuneai.app;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.graphics.Bitmap;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.provider.Settings;
+import android.util.Log;
+import androidx.core.app.NotificationCompat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers virtual calls for due reminders on a dedicated thread, so the
+ * main looper never waits on a launch. Each delivery tries the full-screen
+ * activity first, then the overlay, and always posts the call notification
+ * as a backup. Instead of sleeping after a launch, a strategy counts as
+ * delivered once its surface reports back through {@link #confirm}; if no
+ * confirmation arrives within the strategy's timeout the next one is tried.
+ *
+ * Calls queued by {@link #deliver} ring together when {@link #flush} is
+ * called, as a single call session that lists all their reminders. When
+ * the service knows of another reminder due within COALESCE_WINDOW_MS of
+ * the session's first call, the session waits for it, up to the end of
+ * that window; otherwise it rings at once. A CallCoalescer caps how many
+ * sessions start per minute. A burst of due reminders costs about as much as one
+ * call. Every surface gets the ids of all the session's reminders under
+ * EXTRA_SESSION_IDS, so answering, dismissing or snoozing the session acts
+ * on each of them.
+ *
+ * The launch intent and call notification for a reminder ringing alone can
+ * be built during the pre-roll through {@link #prepare}, so ringing only
+ * starts the activity and posts the notification. Prepared calls are kept
+ * by reminder id until they ring or the reminder changes; sessions of
+ * several reminders are still built when they ring.
+ *
+ * Launch intents carry the occurrence's due time so the surface can trace
+ * its own stages through LatencyTracer; detection and dispatch are traced
+ * here once the delivery settles on a strategy.
+ */
+public class CallDeliveryPipeline {
+    private static final String TAG = "CallDeliveryPipeline";
+
+    public static final int STRATEGY_ACTIVITY = 0;
+    public static final int STRATEGY_OVERLAY = 1;
+    public static final int STRATEGY_NOTIFICATION = 2;
+
+    public static final String EXTRA_DUE_AT = "reminderDueAt";
+    public static final String EXTRA_SESSION_IDS = "sessionReminderIds";
+
+    private static final long ACTIVITY_CONFIRM_TIMEOUT_MS = 1500;
+    private static final long OVERLAY_CONFIRM_TIMEOUT_MS = 1000;
+    // Covers both confirmation timeouts plus launching the notification
+    private static final long DISPATCH_WAKE_LOCK_MS = 5000;
+    // Calls due this soon after a session's first call ring with it
+    private static final long COALESCE_WINDOW_MS = 2000;
+    // Call sessions allowed to start per CallCoalescer.RATE_WINDOW_MS
+    private static final int MAX_LAUNCHES_PER_MINUTE = 3;
+
+    private static CallDeliveryPipeline instance;
+
+    private final Context context;
+    private final Handler handler;
+    private final NotificationManager notificationManager;
+    private final WakeLockManager wakeLocks;
+    private final Metrics metrics = Metrics.get();
+    private final LatencyTracer tracer;
+    // Occurrences handed to deliver() that have not rung or been dropped yet
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // The rest is only touched on the pipeline thread
+    private final CallCoalescer<Occurrence> coalescer = new CallCoalescer<>(MAX_LAUNCHES_PER_MINUTE);
+    // Earliest due time among the queued calls, or Long.MAX_VALUE when none are
+    private long sessionDueAt = Long.MAX_VALUE;
+    // Deliveries awaiting confirmation, by the id of the reminder they ring as
+    private final Map<Integer, Delivery> pending = new HashMap<>();
+    // Every reminder id in a pending delivery's session
+    private final Set<Integer> ringing = new HashSet<>();
+    // Calls built ahead of their due time, by reminder id
+    private final Map<Integer, PreparedCall> prepared = new HashMap<>();
+    private final Runnable launchRunnable = () -> launchSession();
+
+    // One due occurrence, queued until its call session starts
+    private static class Occurrence {
+        final ReminderRecord reminder;
+        final long dueAt;
+        // Wall-clock trace points from the service, recorded once the strategy is known
+        final long detectedAt;
+        final long dispatchedAt;
+
+        Occurrence(ReminderRecord reminder, long dueAt, long detectedAt, long dispatchedAt) {
+            this.reminder = reminder;
+            this.dueAt = dueAt;
+            this.detectedAt = detectedAt;
+            this.dispatchedAt = dispatchedAt;
+        }
+    }
+
+    private static class PreparedCall {
+        final long dueAt;
+        final Intent callIntent;
+        final Notification notification;
+
+        PreparedCall(long dueAt, Intent callIntent, Notification notification) {
+            this.dueAt = dueAt;
+            this.callIntent = callIntent;
+            this.notification = notification;
+        }
+    }
+
+    private class Delivery implements Runnable {
+        // What the call shows: the only reminder, or a summary of the session
+        final ReminderRecord reminder;
+        final List<Occurrence> session;
+        final int[] reminderIds;
+        final long dueAt;
+        final long startedAt = SystemClock.elapsedRealtime();
+        // Null when the call is built at ring time
+        PreparedCall prepared;
+        int strategy;
+
+        Delivery(ReminderRecord reminder, List<Occurrence> session) {
+            this.reminder = reminder;
+            this.session = session;
+            this.reminderIds = new int[session.size()];
+            for (int i = 0; i < reminderIds.length; i++) {
+                reminderIds[i] = session.get(i).reminder.id;
+            }
+            this.dueAt = session.get(0).dueAt;
+        }
+
+        // Runs when the current strategy was not confirmed in time
+        @Override
+        public void run() {
+            Log.w(TAG, strategyName(strategy) + " not confirmed for reminder " + reminder.id);
+            if (strategy == STRATEGY_ACTIVITY) {
+                attemptOverlay(this);
+            } else {
+                finish(this, false);
+            }
+        }
+    }
+
+    public static synchronized CallDeliveryPipeline get(Context context) {
+        if (instance == null) {
+            instance = new CallDeliveryPipeline(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private CallDeliveryPipeline(Context context) {
+        this.context = context;
+        this.notificationManager = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
+        this.wakeLocks = WakeLockManager.get(context);
+        this.tracer = LatencyTracer.get(context);
+        HandlerThread thread = new HandlerThread("CallDelivery");
+        thread.start();
+        handler = new Handler(thread.getLooper());
+    }
+
+    /**
+     * Queues a call for the reminder's occurrence due at {@code dueAt}, which
+     * the service detected at {@code detectedAt}, and returns immediately.
+     * It rings with the next {@link #flush}.
+     */
+    public void deliver(final ReminderRecord reminder, final long dueAt, final long detectedAt) {
+        final long dispatchedAt = System.currentTimeMillis();
+        outstanding.incrementAndGet();
+        handler.post(() -> queue(new Occurrence(reminder, dueAt, detectedAt, dispatchedAt)));
+    }
+
+    /** True when no call is queued or ringing. Safe to call from any thread. */
+    public boolean isIdle() {
+        return outstanding.get() == 0;
+    }
+
+    /**
+     * Rings everything queued so far as one call session, as soon as the
+     * launch rate allows. {@code nextDueAt} is the next pending occurrence's
+     * due time, or -1; when it falls within COALESCE_WINDOW_MS of the
+     * session's first call the session is held for it.
+     */
+    public void flush(final long nextDueAt) {
+        handler.post(() -> {
+            if (coalescer.queuedCount() > 0 && nextDueAt >= 0
+                    && nextDueAt - sessionDueAt <= COALESCE_WINDOW_MS) {
+                // The next check queues that call and flushes again; the window end is only a cap
+                long hold = sessionDueAt + COALESCE_WINDOW_MS - System.currentTimeMillis();
+                coalescer.holdUntil(SystemClock.elapsedRealtime() + Math.max(0, hold));
+            } else {
+                coalescer.holdUntil(Long.MIN_VALUE);
+            }
+            launchSession();
+        });
+    }
+
+    /**
+     * Builds the launch intent and call notification for the reminder's
+     * occurrence due at {@code dueAt} ahead of time. Returns immediately.
+     */
+    public void prepare(final ReminderRecord reminder, final long dueAt) {
+        handler.post(() -> prepareCall(reminder, dueAt));
+    }
+
+    /** Drops the prepared call of an edited or deleted reminder. */
+    public void discard(final int reminderId) {
+        handler.post(() -> prepared.remove(reminderId));
+    }
+
+    /** Drops every prepared call, as when all reminders are replaced. */
+    public void discardAll() {
+        handler.post(() -> prepared.clear());
+    }
+
+    /**
+     * Called by a call surface once it is actually showing. Safe to call from
+     * any thread; confirmations for calls this pipeline did not launch, such
+     * as one opened from the notification, are ignored.
+     */
+    public void confirm(final int reminderId, final int strategy) {
+        handler.post(() -> {
+            Delivery delivery = pending.get(reminderId);
+            if (delivery == null || delivery.strategy != strategy) {
+                return;
+            }
+            handler.removeCallbacks(delivery);
+            finish(delivery, true);
+        });
+    }
+
+    private void prepareCall(ReminderRecord reminder, long dueAt) {
+        PreparedCall existing = prepared.get(reminder.id);
+        if (existing != null && existing.dueAt == dueAt) {
+            return;
+        }
+        // Drop calls whose occurrence passed without ringing, e.g. skipped as already rung
+        long now = System.currentTimeMillis();
+        prepared.values().removeIf(call -> now - call.dueAt > ReminderEngine.TRIGGER_WINDOW_MS);
+        try {
+            int[] reminderIds = {reminder.id};
+            prepared.put(reminder.id, new PreparedCall(dueAt, createLaunchIntent(reminder, reminderIds, dueAt),
+                buildCallNotification(reminder, reminderIds, dueAt)));
+            Log.d(TAG, "Prepared virtual call for: " + reminder.title);
+        } catch (Exception e) {
+            Log.e(TAG, "Error preparing virtual call: " + e.getMessage());
+        }
+    }
+
+    private void queue(Occurrence occurrence) {
+        if (ringing.contains(occurrence.reminder.id)) {
+            Log.d(TAG, "Call already being delivered for reminder " + occurrence.reminder.id);
+            outstanding.decrementAndGet();
+            return;
+        }
+        coalescer.add(occurrence);
+        sessionDueAt = Math.min(sessionDueAt, occurrence.dueAt);
+    }
+
+    private void launchSession() {
+        handler.removeCallbacks(launchRunnable);
+        List<Occurrence> session = new ArrayList<>();
+        long wait = coalescer.drain(SystemClock.elapsedRealtime(), session);
+        if (wait > 0) {
+            Log.d(TAG, coalescer.queuedCount() + " calls held " + wait + "ms for the next reminder or rate limit");
+            // Uptime-based delays stall in deep sleep
+            wakeLocks.hold(WakeLockManager.STAGE_DISPATCH, wait + DISPATCH_WAKE_LOCK_MS);
+            handler.postDelayed(launchRunnable, wait);
+            return;
+        }
+        if (!session.isEmpty()) {
+            sessionDueAt = Long.MAX_VALUE;
+            start(session);
+        }
+    }
+
+    private void start(List<Occurrence> session) {
+        ReminderRecord reminder = sessionReminder(session);
+        Log.d(TAG, "Delivering virtual call for: " + reminder.title);
+        // Keep the CPU up while waiting for the surface to confirm
+        wakeLocks.hold(WakeLockManager.STAGE_DISPATCH, DISPATCH_WAKE_LOCK_MS);
+        Delivery delivery = new Delivery(reminder, session);
+        pending.put(reminder.id, delivery);
+        for (Occurrence occurrence : session) {
+            ringing.add(occurrence.reminder.id);
+        }
+        if (session.size() > 1) {
+            metrics.add(Metrics.CALLS_COALESCED, session.size() - 1);
+        }
+        delivery.prepared = takePrepared(session);
+        if (delivery.prepared != null) {
+            metrics.increment(Metrics.CALLS_PREPARED);
+        }
+
+        delivery.strategy = STRATEGY_ACTIVITY;
+        if (startFullScreenCall(delivery)) {
+            handler.postDelayed(delivery, ACTIVITY_CONFIRM_TIMEOUT_MS);
+        } else {
+            attemptOverlay(delivery);
+        }
+    }
+
+    private void attemptOverlay(Delivery delivery) {
+        delivery.strategy = STRATEGY_OVERLAY;
+        if (canDrawOverlays() && startOverlayCall(delivery)) {
+            handler.postDelayed(delivery, OVERLAY_CONFIRM_TIMEOUT_MS);
+        } else {
+            finish(delivery, false);
+        }
+    }
+
+    private void finish(Delivery delivery, boolean confirmed) {
+        pending.remove(delivery.reminder.id);
+        for (Occurrence occurrence : delivery.session) {
+            ringing.remove(occurrence.reminder.id);
+        }
+        long elapsed = SystemClock.elapsedRealtime() - delivery.startedAt;
+        if (confirmed) {
+            Log.d(TAG, "Virtual call delivered via " + strategyName(delivery.strategy) + " in " + elapsed + "ms");
+            metrics.increment(delivery.strategy == STRATEGY_ACTIVITY
+                ? Metrics.DELIVERIES_ACTIVITY : Metrics.DELIVERIES_OVERLAY);
+        } else {
+            delivery.strategy = STRATEGY_NOTIFICATION;
+            Log.w(TAG, "Virtual call methods failed after " + elapsed + "ms, relying on notification");
+            metrics.increment(Metrics.DELIVERIES_NOTIFICATION);
+        }
+        metrics.record(Metrics.DELIVERY_MS, elapsed);
+        for (Occurrence occurrence : delivery.session) {
+            tracer.mark(delivery.strategy, LatencyTracer.STAGE_DETECTED, occurrence.reminder.id,
+                occurrence.dueAt, occurrence.detectedAt);
+            tracer.mark(delivery.strategy, LatencyTracer.STAGE_DISPATCHED, occurrence.reminder.id,
+                occurrence.dueAt, occurrence.dispatchedAt);
+        }
+
+        // Always show notification as backup (user can tap to open app)
+        showVirtualCallNotification(delivery);
+        if (!confirmed) {
+            long shownAt = System.currentTimeMillis();
+            for (Occurrence occurrence : delivery.session) {
+                tracer.mark(STRATEGY_NOTIFICATION, LatencyTracer.STAGE_RING_VISIBLE, occurrence.reminder.id,
+                    occurrence.dueAt, shownAt);
+            }
+        }
+        if (pending.isEmpty() && coalescer.queuedCount() == 0) {
+            wakeLocks.release(WakeLockManager.STAGE_DISPATCH);
+        }
+        outstanding.addAndGet(-delivery.session.size());
+    }
+
+    // The prepared call when a reminder rings alone at the time it was prepared for
+    private PreparedCall takePrepared(List<Occurrence> session) {
+        PreparedCall call = null;
+        for (Occurrence occurrence : session) {
+            call = prepared.remove(occurrence.reminder.id);
+        }
+        if (session.size() > 1 || call == null || call.dueAt != session.get(0).dueAt) {
+            return null;
+        }
+        return call;
+    }
+
+    /**
+     * The reminder a session rings as: its only reminder, or for several a
+     * summary under the first one's id that lists every title.
+     */
+    private static ReminderRecord sessionReminder(List<Occurrence> session) {
+        ReminderRecord first = session.get(0).reminder;
+        if (session.size() == 1) {
+            return first;
+        }
+        StringBuilder titles = new StringBuilder();
+        for (Occurrence occurrence : session) {
+            if (titles.length() > 0) {
+                titles.append('\n');
+            }
+            titles.append("\u2022 ").append(occurrence.reminder.title);
+        }
+        return new ReminderRecord(first.id, session.size() + " reminders due", titles.toString(),
+            first.date, first.time, false, first.dueAt, null);
+    }
+
+    private boolean startFullScreenCall(Delivery delivery) {
+        try {
+            Intent callIntent = delivery.prepared != null
+                ? delivery.prepared.callIntent
+                : createLaunchIntent(delivery.reminder, delivery.reminderIds, delivery.dueAt);
+            context.startActivity(callIntent);
+            Log.d(TAG, "Started virtual call activity");
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Error starting full screen call: " + e.getMessage());
+            metrics.increment(Metrics.FAILURES);
+            return false;
+        }
+    }
+
+    private boolean startOverlayCall(Delivery delivery) {
+        try {
+            Intent overlayIntent = new Intent(context, OverlayCallService.class);
+            overlayIntent.setAction(OverlayCallService.ACTION_SHOW_OVERLAY_CALL);
+            putReminderExtras(overlayIntent, delivery.reminder, delivery.reminderIds);
+            overlayIntent.putExtra(EXTRA_DUE_AT, delivery.dueAt);
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+                context.startForegroundService(overlayIntent);
+            } else {
+                context.startService(overlayIntent);
+            }
+            Log.d(TAG, "Started overlay call service");
+            return true;
+        } catch (Exception e) {
+            Log.e(TAG, "Error starting overlay call: " + e.getMessage());
+            metrics.increment(Metrics.FAILURES);
+            return false;
+        }
+    }
+
+    private boolean canDrawOverlays() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            return Settings.canDrawOverlays(context);
+        }
+        return true;
+    }
+
+    private void showVirtualCallNotification(Delivery delivery) {
+        try {
+            Notification notification = delivery.prepared != null
+                ? delivery.prepared.notification
+                : buildCallNotification(delivery.reminder, delivery.reminderIds, delivery.dueAt);
+            notificationManager.notify(delivery.reminder.id + 10000, notification);
+            Log.d(TAG, "Virtual call notification shown for: " + delivery.reminder.title);
+        } catch (Exception e) {
+            Log.e(TAG, "Error showing virtual call notification: " + e.getMessage());
+            metrics.increment(Metrics.FAILURES);
+        }
+    }
+
+    // Full-screen, answer and dismiss intents plus the notification; the slow part of showing a call
+    private Notification buildCallNotification(ReminderRecord reminder, int[] reminderIds, long dueAt) {
+        Intent fullScreenIntent = createCallIntent(reminder, reminderIds);
+        fullScreenIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK |
+                                Intent.FLAG_ACTIVITY_CLEAR_TOP |
+                                Intent.FLAG_ACTIVITY_SINGLE_TOP);
+        PendingIntent fullScreenPendingIntent = PendingIntent.getActivity(
+            context, reminder.id, fullScreenIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        Intent answerIntent = new Intent(context, MainActivity.class);
+        answerIntent.putExtra("action", "answer_call");
+        answerIntent.putExtra("reminderId", reminder.id);
+        answerIntent.putExtra(EXTRA_SESSION_IDS, reminderIds);
+        answerIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent answerPendingIntent = PendingIntent.getActivity(
+            context, reminder.id + 1000, answerIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        Intent dismissIntent = new Intent(context, MainActivity.class);
+        dismissIntent.putExtra("action", "dismiss_call");
+        dismissIntent.putExtra("reminderId", reminder.id);
+        dismissIntent.putExtra(EXTRA_SESSION_IDS, reminderIds);
+        dismissIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent dismissPendingIntent = PendingIntent.getActivity(
+            context, reminder.id + 2000, dismissIntent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, ReminderBackgroundService.CALL_CHANNEL_ID)
+            .setSmallIcon(R.drawable.ic_stat_notification)
+            .setContentTitle("TimeTuneAI - Incoming Call")
+            .setContentText(reminder.title)
+            .setLargeIcon((Bitmap) null)
+            .setPriority(NotificationCompat.PRIORITY_HIGH)
+            .setCategory(NotificationCompat.CATEGORY_CALL)
+            .setFullScreenIntent(fullScreenPendingIntent, true)
+            .setAutoCancel(false)
+            .setOngoing(true)
+            .setVibrate(new long[]{1000, 1000, 1000, 1000})
+            .setLights(0xFFF97316, 1000, 1000)
+            .setSound(null)
+            .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
+            .setShowWhen(true)
+            .setWhen(dueAt)
+            .setTimeoutAfter(60000) // Auto-dismiss after 1 minute
+            .addAction(R.drawable.ic_stat_notification, "Answer", answerPendingIntent)
+            .addAction(R.drawable.ic_stat_notification, "Dismiss", dismissPendingIntent)
+            .setDefaults(Notification.DEFAULT_VIBRATE | Notification.DEFAULT_LIGHTS);
+        return builder.build();
+    }
+
+    private Intent createLaunchIntent(ReminderRecord reminder, int[] reminderIds, long dueAt) {
+        Intent callIntent = createCallIntent(reminder, reminderIds);
+        callIntent.putExtra(EXTRA_DUE_AT, dueAt);
+        // Enhanced flags for better background launching
+        callIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK |
+                          Intent.FLAG_ACTIVITY_CLEAR_TOP |
+                          Intent.FLAG_ACTIVITY_SINGLE_TOP |
+                          Intent.FLAG_ACTIVITY_EXCLUDE_FROM_RECENTS |
+                          Intent.FLAG_ACTIVITY_BROUGHT_TO_FRONT |
+                          Intent.FLAG_ACTIVITY_NO_HISTORY |
+                          Intent.FLAG_ACTIVITY_REORDER_TO_FRONT);
+        return callIntent;
+    }
+
+    private Intent createCallIntent(ReminderRecord reminder, int[] reminderIds) {
+        Intent intent = new Intent(context, VirtualCallActivity.class);
+        putReminderExtras(intent, reminder, reminderIds);
+        return intent;
+    }
+
+    private static void putReminderExtras(Intent intent, ReminderRecord reminder, int[] reminderIds) {
+        intent.putExtra("reminderTitle", reminder.title);
+        intent.putExtra("reminderDescription", reminder.description);
+        intent.putExtra("reminderId", reminder.id);
+        intent.putExtra(EXTRA_SESSION_IDS, reminderIds);
+        intent.putExtra("reminderDate", reminder.date);
+        intent.putExtra("reminderTime", reminder.time);
+    }
+
+    /** Ids of every reminder in the call session an intent launches, the lone reminder included. */
+    public static int[] sessionIds(Intent intent) {
+        int[] reminderIds = intent.getIntArrayExtra(EXTRA_SESSION_IDS);
+        return reminderIds != null ? reminderIds : new int[]{intent.getIntExtra("reminderId", 0)};
+    }
+
+    private static String strategyName(int strategy) {
+        switch (strategy) {
+            case STRATEGY_ACTIVITY:
+                return "full-screen activity";
+            case STRATEGY_OVERLAY:
+                return "overlay";
+            default:
+                return "notification";
+        }
+    }
+}
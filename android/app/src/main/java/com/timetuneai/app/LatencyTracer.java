@@ -0,0 +1,144 @@
+package com.timetuneai.app;
+
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import java.io.File;
+
+/**
+ * End-to-end trigger latency: how late each stage of a call happened,
+ * measured from the occurrence's scheduled due time. Every trace point is
+ * logged with the reminder id and due time, and recorded in a persisted
+ * LatencyHistogram per delivery strategy, so percentiles survive restarts.
+ *
+ * Stages up to dispatch happen before the strategy is known; the delivery
+ * carries their times and CallDeliveryPipeline records them once it settles.
+ * Call surfaces record the later stages themselves from the launch intent.
+ * The on-time budget ends at ringVisible. The answer stages only happen
+ * once the user picks up, so they are measured from the answer instead of
+ * the due time and show how fast the web call screen takes over.
+ *
+ * How long after boot BootReceiver had the alarm armed is kept in a second
+ * histogram the same way, since the receiver's process rarely outlives it.
+ */
+public class LatencyTracer {
+    private static final String TAG = "LatencyTracer";
+    private static final String HISTOGRAM_FILE = "latency.bin";
+    private static final String BOOT_HISTOGRAM_FILE = "boot_latency.bin";
+
+    // Trace stages, in the order they happen
+    public static final int STAGE_DETECTED = 0;
+    public static final int STAGE_DISPATCHED = 1;
+    public static final int STAGE_SURFACE_CREATED = 2;
+    public static final int STAGE_RING_VISIBLE = 3;
+    // After the answer, measured from it
+    public static final int STAGE_ANSWER_PAGE_LOADED = 4;
+    public static final int STAGE_ANSWER_JS_ACK = 5;
+    private static final String[] STAGE_NAMES = {
+        "detected", "dispatched", "surfaceCreated", "ringVisible", "answerPageLoaded", "answerJsAck"
+    };
+    // Indexed by CallDeliveryPipeline strategy
+    private static final String[] STRATEGY_NAMES = {"activity", "overlay", "notification"};
+
+    private static LatencyTracer instance;
+
+    private LatencyHistogram histogram;
+    private LatencyHistogram bootHistogram;
+
+    public static synchronized LatencyTracer get(Context context) {
+        if (instance == null) {
+            instance = new LatencyTracer(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private LatencyTracer(Context context) {
+        try {
+            histogram = new LatencyHistogram(new File(context.getFilesDir(), HISTOGRAM_FILE),
+                STRATEGY_NAMES.length, STAGE_NAMES.length);
+        } catch (Exception e) {
+            Log.e(TAG, "Error opening latency histogram: " + e.getMessage());
+        }
+        try {
+            bootHistogram = new LatencyHistogram(new File(context.getFilesDir(), BOOT_HISTOGRAM_FILE), 1, 1);
+        } catch (Exception e) {
+            Log.e(TAG, "Error opening boot latency histogram: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records that {@code stage} happened at {@code at} for the occurrence due
+     * at {@code dueAt}; for an answer stage, pass when the call was answered.
+     */
+    public synchronized void mark(int strategy, int stage, int reminderId, long dueAt, long at) {
+        if (dueAt <= 0) {
+            return;
+        }
+        long latency = at - dueAt;
+        Log.d(TAG, "trace reminder=" + reminderId + (stage >= STAGE_ANSWER_PAGE_LOADED ? " answered=" : " due=")
+            + dueAt + " " + STRATEGY_NAMES[strategy] + "/" + STAGE_NAMES[stage] + " +" + latency + "ms");
+        if (histogram != null) {
+            histogram.record(strategy, stage, latency);
+        }
+    }
+
+    /** Records how long after boot the next reminder alarm was armed. */
+    public synchronized void markBootAlarmArmed(long sinceBootMs) {
+        if (bootHistogram != null) {
+            bootHistogram.record(0, 0, sinceBootMs);
+        }
+    }
+
+    /** Records a stage now, for a call launched with CallDeliveryPipeline's timing extras. */
+    public void mark(int strategy, int stage, Intent intent) {
+        mark(strategy, stage, intent.getIntExtra("reminderId", 0),
+            intent.getLongExtra(CallDeliveryPipeline.EXTRA_DUE_AT, 0), System.currentTimeMillis());
+    }
+
+    /**
+     * JSON snapshot: {strategy: {stage: {count, p50, p90, p99, max}}}, with
+     * latencies in ms after the due time, or after the answer for the answer
+     * stages. Stages never reached are left out.
+     * A "boot" entry holds {"alarmArmed": ...} in ms after boot, once recorded.
+     */
+    public synchronized String snapshotJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append('{');
+        for (int strategy = 0; strategy < STRATEGY_NAMES.length; strategy++) {
+            if (strategy > 0) {
+                json.append(',');
+            }
+            json.append('"').append(STRATEGY_NAMES[strategy]).append("\":{");
+            boolean first = true;
+            for (int stage = 0; histogram != null && stage < STAGE_NAMES.length; stage++) {
+                if (histogram.count(strategy, stage) == 0) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendStats(json, STAGE_NAMES[stage], histogram, strategy, stage);
+            }
+            json.append('}');
+        }
+        json.append(",\"boot\":{");
+        if (bootHistogram != null && bootHistogram.count(0, 0) > 0) {
+            appendStats(json, "alarmArmed", bootHistogram, 0, 0);
+        }
+        json.append("}}");
+        return json.toString();
+    }
+
+    private static void appendStats(StringBuilder json, String name, LatencyHistogram histogram,
+            int strategy, int stage) {
+        json.append('"').append(name).append("\":{")
+            .append("\"count\":").append(histogram.count(strategy, stage))
+            .append(",\"p50\":").append(histogram.percentile(strategy, stage, 0.5))
+            .append(",\"p90\":").append(histogram.percentile(strategy, stage, 0.9))
+            .append(",\"p99\":").append(histogram.percentile(strategy, stage, 0.99))
+            .append(",\"max\":").append(histogram.max(strategy, stage))
+            .append('}');
+    }
+}
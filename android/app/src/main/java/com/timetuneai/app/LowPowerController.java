@@ -0,0 +1,126 @@
+package com.timetuneai.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Low-power mode for ReminderBackgroundService. When no reminder is due
+ * within IDLE_WINDOW_MS the service leaves the foreground and stops, and
+ * the process may be reclaimed; the exact alarm ReminderScheduler keeps
+ * armed for the next reminder's pre-roll starts it again. The service is
+ * only resident around busy periods.
+ *
+ * While the service is stopped the engine sees no edits, so this listens
+ * to the repository instead: a change coming due before the armed alarm
+ * pulls the alarm in, and a full replace re-scans the index. A deleted
+ * reminder costs at most one wake-up with nothing to do.
+ *
+ * Time spent running and stopped is added to Metrics, the stopped time
+ * when the service comes back, from an instant kept in preferences so it
+ * is counted even if the process was reclaimed in between.
+ */
+public class LowPowerController {
+    private static final String TAG = "LowPowerController";
+    private static final String PREFS_NAME = "TimeTuneAI";
+    private static final String KEY_IDLE_SINCE = "service_idle_since";
+
+    // The service stops while nothing is due within this window
+    public static final long IDLE_WINDOW_MS = 15 * 60 * 1000;
+
+    private static LowPowerController instance;
+
+    private final ReminderRepository repository;
+    private final ReminderScheduler scheduler;
+    private final SharedPreferences prefs;
+    private final Metrics metrics = Metrics.get();
+    private boolean idle = false;
+    // Due time the alarm is armed for while idle, -1 for none
+    private long armedDueAt = -1;
+    private long runningSince = SystemClock.elapsedRealtime();
+
+    private final ReminderRepository.Listener idleListener = new ReminderRepository.Listener() {
+        @Override
+        public void onReminderChanged(ReminderRecord reminder) {
+            if (reminder.isCompleted) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            pullAlarmIn(reminder.nextDueAt(now - ReminderEngine.TRIGGER_WINDOW_MS), now);
+        }
+
+        @Override
+        public void onReminderRemoved(int reminderId) {
+        }
+
+        @Override
+        public void onRemindersReplaced() {
+            long now = System.currentTimeMillis();
+            rearm(ReminderEngine.nextDueAt(repository, now), now);
+        }
+    };
+
+    public static synchronized LowPowerController get(Context context) {
+        if (instance == null) {
+            instance = new LowPowerController(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private LowPowerController(Context context) {
+        this.repository = ReminderRepository.get(context);
+        this.scheduler = new ReminderScheduler(context);
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /** Called as the service starts; ends low-power mode if it was on. */
+    public synchronized void onServiceStarted() {
+        if (idle) {
+            repository.removeListener(idleListener);
+            idle = false;
+        }
+        long idleSince = prefs.getLong(KEY_IDLE_SINCE, -1);
+        if (idleSince > 0) {
+            long idleMs = System.currentTimeMillis() - idleSince;
+            if (idleMs > 0) {
+                metrics.add(Metrics.SERVICE_IDLE_MS, idleMs);
+            }
+            Log.d(TAG, "Service back after " + idleMs + "ms stopped");
+            prefs.edit().remove(KEY_IDLE_SINCE).apply();
+        }
+        runningSince = SystemClock.elapsedRealtime();
+    }
+
+    /**
+     * Called as the service stops for low-power mode, with the alarm armed
+     * for {@code nextDueAt} (-1 when nothing is pending).
+     */
+    public synchronized void enterIdle(long nextDueAt) {
+        long runningMs = SystemClock.elapsedRealtime() - runningSince;
+        metrics.add(Metrics.SERVICE_FOREGROUND_MS, runningMs);
+        prefs.edit().putLong(KEY_IDLE_SINCE, System.currentTimeMillis()).apply();
+        Log.d(TAG, "Service stopping after " + runningMs + "ms, next reminder due at " + nextDueAt);
+        armedDueAt = nextDueAt;
+        if (!idle) {
+            idle = true;
+            repository.addListener(idleListener);
+        }
+    }
+
+    private synchronized void pullAlarmIn(long dueAt, long now) {
+        if (!idle || dueAt <= 0 || (armedDueAt >= 0 && dueAt >= armedDueAt)) {
+            return;
+        }
+        rearm(dueAt, now);
+    }
+
+    private synchronized void rearm(long dueAt, long now) {
+        if (!idle) {
+            return;
+        }
+        Log.d(TAG, "Reminders changed while stopped, alarm now for " + dueAt);
+        armedDueAt = dueAt;
+        scheduler.arm(dueAt, now);
+    }
+}
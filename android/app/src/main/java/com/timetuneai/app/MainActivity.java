@@ -1,7 +1,6 @@
 package com.timetuneai.app;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.app.NotificationManager;
 import android.net.Uri;
 import android.os.Bundle;
@@ -14,6 +13,8 @@ import android.webkit.WebView;
 import com.getcapacitor.BridgeActivity;
 import com.codetrixstudio.capacitor.GoogleAuth.GoogleAuth;
 
+import java.util.Arrays;
+
 public class MainActivity extends BridgeActivity {
   private static final String TAG = "MainActivity";
   
@@ -42,24 +43,30 @@ public class MainActivity extends BridgeActivity {
     Intent intent = getIntent();
     if (intent != null && intent.hasExtra("action")) {
       String action = intent.getStringExtra("action");
-      int reminderId = intent.getIntExtra("reminderId", 0);
+      // A coalesced call session acts on every reminder it rang for
+      int[] reminderIds = CallDeliveryPipeline.sessionIds(intent);
       
-      Log.d(TAG, "Handling call action: " + action + " for reminder: " + reminderId);
+      Log.d(TAG, "Handling call action: " + action + " for reminders: " + Arrays.toString(reminderIds));
       
-      // Cancel the notification
+      // Cancel the notifications
       NotificationManager notificationManager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
-      if (notificationManager != null) {
-        notificationManager.cancel(reminderId + 10000);
+      for (int reminderId : reminderIds) {
+        if (notificationManager != null) {
+          notificationManager.cancel(reminderId + 10000);
+        }
+        
+        if ("answer_call".equals(action)) {
+          // Handle answer call action
+          Log.d(TAG, "Call answered for reminder: " + reminderId);
+          // You can add specific logic here for answered calls
+        } else if ("dismiss_call".equals(action)) {
+          // Handle dismiss call action
+          Log.d(TAG, "Call dismissed for reminder: " + reminderId);
+        }
       }
-      
-      if ("answer_call".equals(action)) {
-        // Handle answer call action
-        Log.d(TAG, "Call answered for reminder: " + reminderId);
-        // You can add specific logic here for answered calls
-      } else if ("dismiss_call".equals(action)) {
-        // Handle dismiss call action
-        Log.d(TAG, "Call dismissed for reminder: " + reminderId);
-        // You can add specific logic here for dismissed calls
+      if ("dismiss_call".equals(action)) {
+        // Same as dismissing on the call screen: complete every reminder of the session
+        CallActions.dismiss(this, reminderIds);
       }
     }
   }
@@ -119,19 +126,60 @@ public class MainActivity extends BridgeActivity {
     public void syncReminders(String remindersJson) {
       Log.d(TAG, "Syncing reminders to native storage");
       
-      // Store reminders in SharedPreferences for background service access
-      SharedPreferences prefs = getSharedPreferences("TimeTuneAI", Context.MODE_PRIVATE);
-      SharedPreferences.Editor editor = prefs.edit();
-      editor.putString("reminders", remindersJson);
-      editor.commit(); // Use commit for immediate write
-      
-      Log.d(TAG, "Reminders synced successfully");
+      try {
+        // Full replace, used for the initial sync; edits go through the delta methods below
+        boolean changed = ReminderRepository.get(MainActivity.this).replaceAll(remindersJson);
+        Log.d(TAG, changed ? "Reminders synced successfully" : "Reminders unchanged since last sync");
+      } catch (Exception e) {
+        Log.e(TAG, "Error syncing reminders: " + e.getMessage());
+      }
+    }
+    
+    @JavascriptInterface
+    public boolean upsertReminder(String reminderJson, long version) {
+      try {
+        return ReminderRepository.get(MainActivity.this).upsert(reminderJson, version);
+      } catch (Exception e) {
+        Log.e(TAG, "Error upserting reminder: " + e.getMessage());
+        return false;
+      }
+    }
+    
+    @JavascriptInterface
+    public boolean deleteReminder(int reminderId, long version) {
+      try {
+        return ReminderRepository.get(MainActivity.this).delete(reminderId, version);
+      } catch (Exception e) {
+        Log.e(TAG, "Error deleting reminder: " + e.getMessage());
+        return false;
+      }
+    }
+    
+    @JavascriptInterface
+    public boolean markCompleted(int reminderId, boolean completed, long version) {
+      try {
+        return ReminderRepository.get(MainActivity.this).setCompleted(reminderId, completed, version);
+      } catch (Exception e) {
+        Log.e(TAG, "Error marking reminder completed: " + e.getMessage());
+        return false;
+      }
     }
     
     @JavascriptInterface
     public String getReminders() {
-      SharedPreferences prefs = getSharedPreferences("TimeTuneAI", Context.MODE_PRIVATE);
-      return prefs.getString("reminders", "[]");
+      return ReminderRepository.get(MainActivity.this).toJson();
+    }
+    
+    // Snapshot of the reminder service's counters and histograms, see Metrics
+    @JavascriptInterface
+    public String getMetrics() {
+      return Metrics.get().snapshotJson();
+    }
+    
+    // Trigger latency percentiles per delivery strategy and stage, see LatencyTracer
+    @JavascriptInterface
+    public String getLatency() {
+      return LatencyTracer.get(MainActivity.this).snapshotJson();
     }
   }
   
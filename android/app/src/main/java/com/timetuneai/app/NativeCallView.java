@@ -0,0 +1,191 @@
+package com.timetuneai.app;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.graphics.drawable.GradientDrawable;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+/**
+ * The incoming-call screen built from plain native views, shown by both
+ * VirtualCallActivity and OverlayCallService. It draws in the first frame
+ * without starting a WebView; the web call screen is only loaded once the
+ * user answers.
+ */
+public class NativeCallView {
+
+    public interface Listener {
+        void onAnswer();
+
+        void onDismiss();
+
+        void onSnooze();
+    }
+
+    private NativeCallView() {
+    }
+
+    public static LinearLayout create(Context context, String title, String description, String date, String time,
+                                      Listener listener) {
+        // Create main container
+        LinearLayout container = new LinearLayout(context);
+        container.setLayoutParams(new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT,
+            LinearLayout.LayoutParams.MATCH_PARENT
+        ));
+        container.setOrientation(LinearLayout.VERTICAL);
+        container.setBackgroundColor(0xFF000000); // Black background
+        container.setPadding(40, 100, 40, 100);
+        container.addView(createCallInterface(context, title, description, date, time, listener));
+        return container;
+    }
+
+    private static LinearLayout createCallInterface(Context context, String title, String description, String date,
+                                                    String time, Listener listener) {
+        LinearLayout callInterface = new LinearLayout(context);
+        callInterface.setLayoutParams(new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT,
+            LinearLayout.LayoutParams.MATCH_PARENT
+        ));
+        callInterface.setOrientation(LinearLayout.VERTICAL);
+        callInterface.setGravity(Gravity.CENTER);
+        callInterface.setPadding(60, 120, 60, 120);
+
+        // App Title with better styling
+        TextView titleView = new TextView(context);
+        titleView.setText("📱 TimeTuneAI Assistant");
+        titleView.setTextColor(0xFFFFFFFF);
+        titleView.setTextSize(28);
+        titleView.setGravity(Gravity.CENTER);
+        titleView.setPadding(30, 30, 30, 20);
+        titleView.setTypeface(null, Typeface.BOLD);
+        callInterface.addView(titleView);
+
+        // Status indicator
+        TextView statusView = new TextView(context);
+        statusView.setText("🔔 Incoming Reminder Call");
+        statusView.setTextColor(0xFFFFB74D);
+        statusView.setTextSize(16);
+        statusView.setGravity(Gravity.CENTER);
+        statusView.setPadding(20, 0, 20, 30);
+        callInterface.addView(statusView);
+
+        // Card container for reminder details
+        LinearLayout cardContainer = new LinearLayout(context);
+        cardContainer.setLayoutParams(new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT,
+            LinearLayout.LayoutParams.WRAP_CONTENT
+        ));
+        cardContainer.setOrientation(LinearLayout.VERTICAL);
+        cardContainer.setPadding(40, 30, 40, 30);
+        GradientDrawable cardShape = new GradientDrawable();
+        cardShape.setShape(GradientDrawable.RECTANGLE);
+        cardShape.setCornerRadius(30);
+        cardShape.setColor(0x33FFFFFF); // Semi-transparent white
+        cardContainer.setBackground(cardShape);
+
+        // Reminder title
+        TextView reminderTitle = new TextView(context);
+        reminderTitle.setText(title);
+        reminderTitle.setTextColor(0xFFFFFFFF);
+        reminderTitle.setTextSize(22);
+        reminderTitle.setGravity(Gravity.CENTER);
+        reminderTitle.setPadding(0, 0, 0, 15);
+        reminderTitle.setTypeface(null, Typeface.BOLD);
+        cardContainer.addView(reminderTitle);
+
+        // Description
+        if (description != null && !description.isEmpty()) {
+            TextView descView = new TextView(context);
+            descView.setText(description);
+            descView.setTextColor(0xFFE0E0E0);
+            descView.setTextSize(15);
+            descView.setGravity(Gravity.CENTER);
+            descView.setPadding(0, 0, 0, 15);
+            cardContainer.addView(descView);
+        }
+
+        // Time info
+        TextView timeView = new TextView(context);
+        timeView.setText("🕐 " + time + " • " + date);
+        timeView.setTextColor(0xFFFFB74D);
+        timeView.setTextSize(13);
+        timeView.setGravity(Gravity.CENTER);
+        cardContainer.addView(timeView);
+
+        callInterface.addView(cardContainer);
+
+        // Add some spacing
+        View spacer = new View(context);
+        spacer.setLayoutParams(new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT, 60
+        ));
+        callInterface.addView(spacer);
+
+        // Buttons container
+        LinearLayout buttonsContainer = new LinearLayout(context);
+        buttonsContainer.setLayoutParams(new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT,
+            LinearLayout.LayoutParams.WRAP_CONTENT
+        ));
+        buttonsContainer.setOrientation(LinearLayout.HORIZONTAL);
+        buttonsContainer.setGravity(Gravity.CENTER);
+        buttonsContainer.setPadding(0, 20, 0, 0);
+
+        // Dismiss button (left)
+        Button dismissButton = createStyledButton(context, "❌ Dismiss", 0xFFF44336);
+        LinearLayout.LayoutParams dismissParams = new LinearLayout.LayoutParams(
+            0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f
+        );
+        dismissParams.setMargins(0, 0, 15, 0);
+        dismissButton.setLayoutParams(dismissParams);
+        dismissButton.setOnClickListener(v -> listener.onDismiss());
+
+        // Answer button
+        Button answerButton = createStyledButton(context, "📞 Answer", 0xFF4CAF50);
+        LinearLayout.LayoutParams answerParams = new LinearLayout.LayoutParams(
+            0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f
+        );
+        answerParams.setMargins(15, 0, 0, 0);
+        answerButton.setLayoutParams(answerParams);
+        answerButton.setOnClickListener(v -> listener.onAnswer());
+
+        buttonsContainer.addView(dismissButton);
+        buttonsContainer.addView(answerButton);
+        callInterface.addView(buttonsContainer);
+
+        // Add snooze button below
+        Button snoozeButton = createStyledButton(context, "⏰ Snooze 5 min", 0xFFFF9800);
+        LinearLayout.LayoutParams snoozeParams = new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT,
+            LinearLayout.LayoutParams.WRAP_CONTENT
+        );
+        snoozeParams.setMargins(40, 20, 40, 0);
+        snoozeButton.setLayoutParams(snoozeParams);
+        snoozeButton.setOnClickListener(v -> listener.onSnooze());
+        callInterface.addView(snoozeButton);
+
+        return callInterface;
+    }
+
+    private static Button createStyledButton(Context context, String text, int backgroundColor) {
+        Button button = new Button(context);
+        button.setText(text);
+        button.setTextColor(0xFFFFFFFF);
+        button.setTextSize(16);
+        button.setPadding(30, 25, 30, 25);
+        button.setTypeface(null, Typeface.BOLD);
+
+        // Create rounded button background
+        GradientDrawable shape = new GradientDrawable();
+        shape.setShape(GradientDrawable.RECTANGLE);
+        shape.setCornerRadius(25);
+        shape.setColor(backgroundColor);
+        button.setBackground(shape);
+
+        return button;
+    }
+}
@@ -15,19 +15,21 @@ import android.view.MotionEvent;
 import android.view.View;
 import android.view.WindowManager;
 import android.webkit.WebView;
-import android.webkit.WebViewClient;
-import android.webkit.WebSettings;
-import android.widget.Button;
 import android.widget.LinearLayout;
-import android.widget.TextView;
 import androidx.annotation.Nullable;
 
+import java.util.Arrays;
+
 public class OverlayCallService extends Service {
     private static final String TAG = "OverlayCallService";
     private WindowManager windowManager;
     private View overlayView;
     private boolean isOverlayShowing = false;
     private WebView webView;
+    // Due time of the occurrence on screen, for latency tracing
+    private long dueAt;
+    // Every reminder the call on screen rings for
+    private int[] sessionIds = new int[0];
     
     public static final String ACTION_SHOW_OVERLAY_CALL = "SHOW_OVERLAY_CALL";
     public static final String ACTION_HIDE_OVERLAY_CALL = "HIDE_OVERLAY_CALL";
@@ -55,7 +57,13 @@ public class OverlayCallService extends Service {
                 String reminderTime = intent.getStringExtra("reminderTime");
                 
                 Log.d(TAG, "Showing overlay call for: " + reminderTitle);
+                dueAt = intent.getLongExtra(CallDeliveryPipeline.EXTRA_DUE_AT, 0);
+                sessionIds = CallDeliveryPipeline.sessionIds(intent);
                 showOverlayCall(reminderTitle, reminderDescription, reminderId, reminderDate, reminderTime);
+                if (isOverlayShowing) {
+                    trace(LatencyTracer.STAGE_SURFACE_CREATED, reminderId);
+                    overlayView.post(() -> trace(LatencyTracer.STAGE_RING_VISIBLE, reminderId));
+                }
             } else if (ACTION_HIDE_OVERLAY_CALL.equals(action)) {
                 hideOverlayCall();
             }
@@ -109,6 +117,7 @@ public class OverlayCallService extends Service {
             isOverlayShowing = true;
             
             Log.d(TAG, "Overlay call displayed successfully");
+            CallDeliveryPipeline.get(this).confirm(reminderId, CallDeliveryPipeline.STRATEGY_OVERLAY);
             
             // Auto-dismiss after 60 seconds
             new android.os.Handler().postDelayed(() -> {
@@ -129,6 +138,7 @@ public class OverlayCallService extends Service {
             callIntent.putExtra("reminderTitle", title);
             callIntent.putExtra("reminderDescription", description);
             callIntent.putExtra("reminderId", reminderId);
+            callIntent.putExtra(CallDeliveryPipeline.EXTRA_SESSION_IDS, sessionIds);
             callIntent.putExtra("reminderDate", date);
             callIntent.putExtra("reminderTime", time);
             callIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | 
@@ -147,268 +157,98 @@ public class OverlayCallService extends Service {
     }
     
     private View createOverlayView(String title, String description, int reminderId, String date, String time) {
-        // Create main container
-        LinearLayout container = new LinearLayout(this);
-        container.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.MATCH_PARENT
-        ));
-        container.setOrientation(LinearLayout.VERTICAL);
-        container.setBackgroundColor(0xFF000000); // Black background
-        container.setPadding(40, 100, 40, 100);
-        
-        // Create simple native UI instead of WebView for better reliability
-        LinearLayout callInterface = createNativeCallInterface(title, description, reminderId, date, time);
-        container.addView(callInterface);
-        
-        return container;
-    }
-    
-    private LinearLayout createNativeCallInterface(String title, String description, int reminderId, String date, String time) {
-        LinearLayout callInterface = new LinearLayout(this);
-        callInterface.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.MATCH_PARENT
-        ));
-        callInterface.setOrientation(LinearLayout.VERTICAL);
-        callInterface.setGravity(android.view.Gravity.CENTER);
-        callInterface.setPadding(60, 120, 60, 120);
-        
-        // App Title with better styling
-        TextView titleView = new TextView(this);
-        titleView.setText("📱 TimeTuneAI Assistant");
-        titleView.setTextColor(0xFFFFFFFF);
-        titleView.setTextSize(28);
-        titleView.setGravity(android.view.Gravity.CENTER);
-        titleView.setPadding(30, 30, 30, 20);
-        titleView.setTypeface(null, android.graphics.Typeface.BOLD);
-        callInterface.addView(titleView);
-        
-        // Status indicator
-        TextView statusView = new TextView(this);
-        statusView.setText("🔔 Incoming Reminder Call");
-        statusView.setTextColor(0xFFFFB74D);
-        statusView.setTextSize(16);
-        statusView.setGravity(android.view.Gravity.CENTER);
-        statusView.setPadding(20, 0, 20, 30);
-        callInterface.addView(statusView);
-        
-        // Card container for reminder details
-        LinearLayout cardContainer = new LinearLayout(this);
-        cardContainer.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT
-        ));
-        cardContainer.setOrientation(LinearLayout.VERTICAL);
-        cardContainer.setBackgroundColor(0x33FFFFFF); // Semi-transparent white
-        cardContainer.setPadding(40, 30, 40, 30);
-        
-        // Create rounded corners effect (limited on older Android)
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.JELLY_BEAN) {
-            android.graphics.drawable.GradientDrawable shape = new android.graphics.drawable.GradientDrawable();
-            shape.setShape(android.graphics.drawable.GradientDrawable.RECTANGLE);
-            shape.setCornerRadius(30);
-            shape.setColor(0x33FFFFFF);
-            cardContainer.setBackground(shape);
-        }
-        
-        // Reminder title
-        TextView reminderTitle = new TextView(this);
-        reminderTitle.setText(title);
-        reminderTitle.setTextColor(0xFFFFFFFF);
-        reminderTitle.setTextSize(22);
-        reminderTitle.setGravity(android.view.Gravity.CENTER);
-        reminderTitle.setPadding(0, 0, 0, 15);
-        reminderTitle.setTypeface(null, android.graphics.Typeface.BOLD);
-        cardContainer.addView(reminderTitle);
-        
-        // Description
-        if (description != null && !description.isEmpty()) {
-            TextView descView = new TextView(this);
-            descView.setText(description);
-            descView.setTextColor(0xFFE0E0E0);
-            descView.setTextSize(15);
-            descView.setGravity(android.view.Gravity.CENTER);
-            descView.setPadding(0, 0, 0, 15);
-            cardContainer.addView(descView);
-        }
-        
-        // Time info
-        TextView timeView = new TextView(this);
-        timeView.setText("🕐 " + time + " • " + date);
-        timeView.setTextColor(0xFFFFB74D);
-        timeView.setTextSize(13);
-        timeView.setGravity(android.view.Gravity.CENTER);
-        timeView.setPadding(0, 0, 0, 0);
-        cardContainer.addView(timeView);
-        
-        callInterface.addView(cardContainer);
-        
-        // Add some spacing
-        android.view.View spacer = new android.view.View(this);
-        spacer.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT, 60
-        ));
-        callInterface.addView(spacer);
-        
-        // Buttons container
-        LinearLayout buttonsContainer = new LinearLayout(this);
-        buttonsContainer.setLayoutParams(new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT
-        ));
-        buttonsContainer.setOrientation(LinearLayout.HORIZONTAL);
-        buttonsContainer.setGravity(android.view.Gravity.CENTER);
-        buttonsContainer.setPadding(0, 20, 0, 0);
-        
-        // Dismiss button (left)
-        Button dismissButton = createStyledButton("❌ Dismiss", 0xFFF44336, 0xFFD32F2F);
-        LinearLayout.LayoutParams dismissParams = new LinearLayout.LayoutParams(
-            0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f
-        );
-        dismissParams.setMargins(0, 0, 15, 0);
-        dismissButton.setLayoutParams(dismissParams);
-        dismissButton.setOnClickListener(v -> handleDismissCall(reminderId));
-        
-        // Answer button
-        Button answerButton = createStyledButton("📞 Answer", 0xFF4CAF50, 0xFF388E3C);
-        LinearLayout.LayoutParams answerParams = new LinearLayout.LayoutParams(
-            0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f
-        );
-        answerParams.setMargins(15, 0, 0, 0);
-        answerButton.setLayoutParams(answerParams);
-        answerButton.setOnClickListener(v -> handleAnswerCall(reminderId));
-        
-        buttonsContainer.addView(dismissButton);
-        buttonsContainer.addView(answerButton);
-        callInterface.addView(buttonsContainer);
-        
-        // Add snooze button below
-        Button snoozeButton = createStyledButton("⏰ Snooze 5 min", 0xFFFF9800, 0xFFF57C00);
-        LinearLayout.LayoutParams snoozeParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.WRAP_CONTENT
-        );
-        snoozeParams.setMargins(40, 20, 40, 0);
-        snoozeButton.setLayoutParams(snoozeParams);
-        snoozeButton.setOnClickListener(v -> handleSnoozeCall(reminderId));
-        callInterface.addView(snoozeButton);
-        
-        return callInterface;
-    }
-    
-    private Button createStyledButton(String text, int backgroundColor, int pressedColor) {
-        Button button = new Button(this);
-        button.setText(text);
-        button.setTextColor(0xFFFFFFFF);
-        button.setTextSize(16);
-        button.setPadding(30, 25, 30, 25);
-        button.setTypeface(null, android.graphics.Typeface.BOLD);
-        
-        // Create rounded button background
-        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.JELLY_BEAN) {
-            android.graphics.drawable.GradientDrawable shape = new android.graphics.drawable.GradientDrawable();
-            shape.setShape(android.graphics.drawable.GradientDrawable.RECTANGLE);
-            shape.setCornerRadius(25);
-            shape.setColor(backgroundColor);
-            button.setBackground(shape);
-        } else {
-            button.setBackgroundColor(backgroundColor);
-        }
-        
-        return button;
+        // The native screen draws immediately; the web screen is only loaded on answer
+        return NativeCallView.create(this, title, description, date, time, new NativeCallView.Listener() {
+            @Override
+            public void onAnswer() {
+                handleAnswerCall(title, description, reminderId, date, time);
+            }
+            
+            @Override
+            public void onDismiss() {
+                handleDismissCall(reminderId);
+            }
+            
+            @Override
+            public void onSnooze() {
+                handleSnoozeCall(reminderId);
+            }
+        });
     }
     
     private void handleSnoozeCall(int reminderId) {
-        Log.d(TAG, "Call snoozed for reminder: " + reminderId);
+        Log.d(TAG, "Call snoozed for reminders: " + Arrays.toString(sessionIds));
+        CallActions.snooze(this, sessionIds, System.currentTimeMillis());
         hideOverlayCall();
     }
     
-    private void handleAnswerCall(int reminderId) {
+    private void handleAnswerCall(String title, String description, int reminderId, String date, String time) {
         Log.d(TAG, "Call answered for reminder: " + reminderId);
+        if (overlayView == null || webView != null) {
+            return;
+        }
         
-        // Open main app
-        Intent mainIntent = new Intent(this, MainActivity.class);
-        mainIntent.putExtra("action", "answer_call");
-        mainIntent.putExtra("reminderId", reminderId);
-        mainIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
-        startActivity(mainIntent);
-        
-        hideOverlayCall();
+        // Upgrade to the web call screen in place
+        LinearLayout container = (LinearLayout) overlayView;
+        container.removeAllViews();
+        container.setPadding(0, 0, 0, 0);
+        container.addView(createWebViewInterface(title, description, reminderId, date, time));
     }
     
     private void handleDismissCall(int reminderId) {
-        Log.d(TAG, "Call dismissed for reminder: " + reminderId);
+        Log.d(TAG, "Call dismissed for reminders: " + Arrays.toString(sessionIds));
+        CallActions.dismiss(this, sessionIds);
         hideOverlayCall();
     }
     
     private View createWebViewInterface(String title, String description, int reminderId, String date, String time) {
-        // Create WebView for full call interface
-        webView = new WebView(this);
-        WebSettings settings = webView.getSettings();
-        settings.setJavaScriptEnabled(true);
-        settings.setDomStorageEnabled(true);
-        settings.setAllowFileAccess(true);
-        settings.setAllowContentAccess(true);
-        settings.setMediaPlaybackRequiresUserGesture(false);
-        
-        LinearLayout.LayoutParams webViewParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT,
-            LinearLayout.LayoutParams.MATCH_PARENT
-        );
-        webView.setLayoutParams(webViewParams);
-        
-        webView.setWebViewClient(new WebViewClient() {
+        final long answeredAt = System.currentTimeMillis();
+        // Take the pre-warmed call screen when the pre-roll prepared one
+        webView = WebViewPool.get(this).obtain(this, new WebViewPool.ReadyCallback() {
             @Override
-            public void onPageFinished(WebView view, String url) {
-                super.onPageFinished(view, url);
-                
-                Log.d(TAG, "WebView loaded, triggering overlay call");
-                
-                // Inject JavaScript to show virtual call overlay
-                String js = String.format(
-                    "setTimeout(() => {" +
-                    "  if (window.triggerVirtualCall) {" +
-                    "    window.triggerVirtualCall({" +
-                    "      id: %d, " +
-                    "      title: '%s', " +
-                    "      description: '%s', " +
-                    "      date: '%s', " +
-                    "      time: '%s', " +
-                    "      category: 'personal', " +
-                    "      priority: 'medium', " +
-                    "      isCompleted: false" +
-                    "    });" +
-                    "  } else {" +
-                    "    console.log('triggerVirtualCall not available yet');" +
-                    "  }" +
-                    "}, 1000);",
-                    reminderId,
-                    title != null ? title.replace("'", "\\'") : "",
-                    description != null ? description.replace("'", "\\'") : "",
-                    date != null ? date : "",
-                    time != null ? time : ""
-                );
-                
-                webView.evaluateJavascript(js, null);
+            public void onReady(WebView view, CallChannel channel, boolean warm) {
+                Log.d(TAG, "WebView loaded (" + (warm ? "warm" : "cold") + "), answering overlay call");
+                traceSinceAnswer(LatencyTracer.STAGE_ANSWER_PAGE_LOADED, reminderId, answeredAt);
+                channel.setListener(new CallChannel.Listener() {
+                    @Override
+                    public void onCallAcknowledged(int id) {
+                        traceSinceAnswer(LatencyTracer.STAGE_ANSWER_JS_ACK, id, answeredAt);
+                    }
+                    
+                    @Override
+                    public void onCallEnded() {
+                        hideOverlayCall();
+                    }
+                });
+                channel.showCall(reminderId, sessionIds, title, description, date, time, true);
             }
             
             @Override
-            public void onReceivedError(WebView view, int errorCode, String description, String failingUrl) {
-                super.onReceivedError(view, errorCode, description, failingUrl);
-                Log.e(TAG, "WebView error: " + description);
+            public void onError(String description) {
                 // Fallback to native interface
                 hideOverlayCall();
             }
         });
         
-        // Load the main app
-        String appUrl = "file:///android_asset/public/index.html";
-        webView.loadUrl(appUrl);
+        LinearLayout.LayoutParams webViewParams = new LinearLayout.LayoutParams(
+            LinearLayout.LayoutParams.MATCH_PARENT,
+            LinearLayout.LayoutParams.MATCH_PARENT
+        );
+        webView.setLayoutParams(webViewParams);
         
         return webView;
     }
     
+    private void trace(int stage, int reminderId) {
+        LatencyTracer.get(this).mark(CallDeliveryPipeline.STRATEGY_OVERLAY, stage, reminderId, dueAt,
+            System.currentTimeMillis());
+    }
+    
+    private void traceSinceAnswer(int stage, int reminderId, long answeredAt) {
+        LatencyTracer.get(this).mark(CallDeliveryPipeline.STRATEGY_OVERLAY, stage, reminderId, answeredAt,
+            System.currentTimeMillis());
+    }
+    
     private void hideOverlayCall() {
         if (overlayView != null && isOverlayShowing) {
             try {
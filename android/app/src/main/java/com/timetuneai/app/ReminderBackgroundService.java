@@ -1,42 +1,58 @@
 package com.timetuneai.app;
 import android.app.Notification;
-import android.graphics.Bitmap;
 import android.app.NotificationChannel;
 import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Build;
+import android.os.Debug;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
-import android.os.PowerManager;
-import android.provider.Settings;
 import android.util.Log;
-import android.view.WindowManager;
 import androidx.core.app.NotificationCompat;
-import org.json.JSONArray;
-import org.json.JSONObject;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashSet;
-import java.util.Locale;
-import java.util.Set;
+import java.io.File;
 
 public class ReminderBackgroundService extends Service {
     private static final String TAG = "ReminderBgService";
     private static final String CHANNEL_ID = "reminder_background_service";
-    private static final String CALL_CHANNEL_ID = "virtual_calls_bg";
+    static final String CALL_CHANNEL_ID = "virtual_calls_bg";
     private static final int NOTIFICATION_ID = 1001;
-    private static final int CHECK_INTERVAL = 30000; // 30 seconds for better battery life
+    
+    public static final String ACTION_REMINDER_DUE = "com.timetuneai.app.REMINDER_DUE";
+    private static final String TRIGGER_LOG_FILE = "trigger_log.bin";
+    private static final String SNAPSHOT_FILE = "engine_snapshot.bin";
+    // Upper bounds for each stage's wake lock; stages release as soon as they finish
+    private static final long INGEST_WAKE_LOCK_MS = 10000;
+    private static final long CHECK_WAKE_LOCK_MS = 5000;
+    // Calls prepared per pre-roll; anything beyond rings as a session built at ring time anyway
+    private static final int MAX_PREPARED_CALLS = 8;
+    // How long after a check low-power mode is considered, so its calls can finish ringing
+    private static final long IDLE_CHECK_DELAY_MS = 30000;
     
     private Handler handler;
-    private Runnable reminderChecker;
-    private PowerManager.WakeLock wakeLock;
+    private ReminderRepository repository;
+    private ReminderScheduler scheduler;
+    private ReminderEngine engine;
+    private CallDeliveryPipeline deliveryPipeline;
+    private WakeLockManager wakeLocks;
+    private LowPowerController lowPower;
+    private final Metrics metrics = Metrics.get();
     private boolean isRunning = false;
-    private Set<Integer> triggeredReminders = new HashSet<>();
+    // Set when the service stops itself for low-power mode, which must not schedule a restart
+    private boolean stoppingForIdle = false;
+    private int lastStartId;
+    // Occurrences that already rang; persisted so restarts cannot ring them again
+    private TriggerLog triggerLog;
+    // Check instant and queue head, so a restart can resume without reloading
+    private EngineSnapshot snapshot;
+    // Runs the due check at the exact due time once the pre-roll has started
+    private final Runnable dueCheck = () -> checkForDueReminders();
+    private final Runnable idleCheck = () -> maybeEnterLowPower();
+    private final int[] upcomingIds = new int[MAX_PREPARED_CALLS];
+    private final long[] upcomingDueTimes = new long[MAX_PREPARED_CALLS];
     private NotificationManager notificationManager;
     
     @Override
@@ -49,25 +65,88 @@ public class ReminderBackgroundService extends Service {
         // Create notification channels
         createNotificationChannels();
         
-        // Acquire wake lock to keep service running
-        PowerManager powerManager = (PowerManager) getSystemService(POWER_SERVICE);
-        if (powerManager != null) {
-            wakeLock = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, "TimeTuneAI::ReminderWakeLock");
-        }
+        // The CPU is only held around ingest, due checks, pre-roll and delivery
+        wakeLocks = WakeLockManager.get(this);
+        lowPower = LowPowerController.get(this);
+        lowPower.onServiceStarted();
         
         handler = new Handler(Looper.getMainLooper());
-        setupReminderChecker();
+        scheduler = new ReminderScheduler(this);
+        repository = ReminderRepository.get(this);
+        deliveryPipeline = CallDeliveryPipeline.get(this);
+        try {
+            triggerLog = new TriggerLog(new File(getFilesDir(), TRIGGER_LOG_FILE), ReminderEngine.TRIGGER_WINDOW_MS);
+        } catch (Exception e) {
+            Log.e(TAG, "Error opening trigger log: " + e.getMessage());
+        }
+        try {
+            snapshot = new EngineSnapshot(new File(getFilesDir(), SNAPSHOT_FILE));
+        } catch (Exception e) {
+            Log.e(TAG, "Error opening scheduler snapshot: " + e.getMessage());
+        }
+        engine = new ReminderEngine(System::currentTimeMillis, repository, engineSink, triggerLog, snapshot, metrics);
+        repository.addListener(repositoryListener);
     }
     
+    private final ReminderEngine.Sink engineSink = new ReminderEngine.Sink() {
+        @Override
+        public void deliver(ReminderRecord reminder, long dueAt, long detectedAt) {
+            Log.d(TAG, "Found due reminder: " + reminder.title);
+            // Queued on the delivery thread; checkForDueReminders flushes once the check is done
+            deliveryPipeline.deliver(reminder, dueAt, detectedAt);
+        }
+        
+        @Override
+        public void onMissed(int reminderId, long dueAt, long now) {
+            Log.w(TAG, "Missed reminder " + reminderId + " due at " + dueAt);
+        }
+    };
+    
+    // Deltas arrive on the JS bridge thread; apply them to the scheduler on the main thread.
+    // The store generation is read here, in write order: by the time the main thread
+    // applies a change, later writes may already have bumped it.
+    private final ReminderRepository.Listener repositoryListener = new ReminderRepository.Listener() {
+        @Override
+        public void onReminderChanged(final ReminderRecord reminder) {
+            // A call prepared from the old version would show stale details
+            deliveryPipeline.discard(reminder.id);
+            final long generation = repository.generation();
+            handler.post(() -> applyReminderChange(reminder, generation));
+        }
+        
+        @Override
+        public void onReminderRemoved(final int reminderId) {
+            deliveryPipeline.discard(reminderId);
+            final long generation = repository.generation();
+            handler.post(() -> {
+                if (engine.remove(reminderId, generation)) {
+                    scheduler.arm(engine.nextDueAt(), engine.now());
+                }
+            });
+        }
+        
+        @Override
+        public void onRemindersReplaced() {
+            deliveryPipeline.discardAll();
+            handler.post(() -> reloadReminders());
+        }
+    };
+    
     @Override
     public int onStartCommand(Intent intent, int flags, int startId) {
         Log.d(TAG, "Background service started");
+        lastStartId = startId;
         
         // Start foreground service
         startForeground(NOTIFICATION_ID, createForegroundNotification());
         
+        String action = intent != null ? intent.getAction() : null;
+        
         if (!isRunning) {
+            // Fresh start: load everything, which also drains anything already due
             startReminderChecking();
+        } else if (ACTION_REMINDER_DUE.equals(action)) {
+            checkForDueReminders();
         }
         
         // Return START_STICKY to restart service if killed
@@ -85,13 +164,28 @@ public class ReminderBackgroundService extends Service {
         Log.d(TAG, "Background service destroyed");
         
         stopReminderChecking();
-        
-        if (wakeLock != null && wakeLock.isHeld()) {
-            wakeLock.release();
+        repository.removeListener(repositoryListener);
+        if (triggerLog != null) {
+            try {
+                triggerLog.close();
+            } catch (Exception e) {
+                Log.e(TAG, "Error closing trigger log: " + e.getMessage());
+            }
+        }
+        if (snapshot != null) {
+            try {
+                snapshot.close();
+            } catch (Exception e) {
+                Log.e(TAG, "Error closing scheduler snapshot: " + e.getMessage());
+            }
         }
         
-        // Restart service immediately
-        scheduleServiceRestart();
+        wakeLocks.releaseAll();
+        
+        // In low-power mode the armed alarm brings the service back instead
+        if (!stoppingForIdle) {
+            scheduleServiceRestart();
+        }
     }
     
     private void scheduleServiceRestart() {
@@ -166,311 +260,158 @@ public class ReminderBackgroundService extends Service {
             .build();
     }
     
-    private void setupReminderChecker() {
-        reminderChecker = new Runnable() {
-            @Override
-            public void run() {
-                if (isRunning) {
-                    checkForDueReminders();
-                    handler.postDelayed(this, CHECK_INTERVAL);
-                }
-            }
-        };
-    }
-    
     private void startReminderChecking() {
         Log.d(TAG, "Starting reminder checking");
         isRunning = true;
-        
-        if (wakeLock != null && !wakeLock.isHeld()) {
-            try {
-                wakeLock.acquire(10 * 60 * 1000L); // 10 minutes
-            } catch (Exception e) {
-                Log.e(TAG, "Error acquiring wake lock: " + e.getMessage());
-            }
+        if (!engine.resume()) {
+            reloadReminders();
+            return;
         }
         
-        handler.post(reminderChecker);
+        // Warm restart: nothing changed since the snapshot, so arm from it and load the index lazily
+        long nextDueAt = engine.nextDueAt();
+        Log.d(TAG, "Resumed from scheduler snapshot, next reminder due at " + nextDueAt);
+        if (nextDueAt >= 0 && nextDueAt <= engine.now()) {
+            checkForDueReminders();
+        } else {
+            scheduler.arm(nextDueAt, engine.now());
+            startPreroll();
+            scheduleIdleCheck();
+        }
     }
     
     private void stopReminderChecking() {
         Log.d(TAG, "Stopping reminder checking");
+        // The armed alarm is left in place so it can bring the service back
         isRunning = false;
-        
-        if (handler != null && reminderChecker != null) {
-            handler.removeCallbacks(reminderChecker);
-        }
+        handler.removeCallbacks(dueCheck);
+        handler.removeCallbacks(idleCheck);
+        wakeLocks.release(WakeLockManager.STAGE_PREROLL);
     }
     
-    private void checkForDueReminders() {
+    private void reloadReminders() {
+        wakeLocks.hold(WakeLockManager.STAGE_INGEST, INGEST_WAKE_LOCK_MS);
         try {
-            Log.d(TAG, "Checking for due reminders...");
-            
-            // Get reminders from SharedPreferences
-            SharedPreferences prefs = getSharedPreferences("TimeTuneAI", Context.MODE_PRIVATE);
-            String remindersJson = prefs.getString("reminders", "[]");
-            
-            if (remindersJson.equals("[]")) {
-                Log.d(TAG, "No reminders found");
-                return;
-            }
-            
-            JSONArray reminders = new JSONArray(remindersJson);
-            Date now = new Date();
-            SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
-            
-            String currentDate = dateFormat.format(now);
-            String currentTime = timeFormat.format(now);
-            
-            Log.d(TAG, "Current time: " + currentDate + " " + currentTime);
-            Log.d(TAG, "Found " + reminders.length() + " reminders to check");
-            
-            for (int i = 0; i < reminders.length(); i++) {
-                JSONObject reminder = reminders.getJSONObject(i);
-                
-                if (reminder.getBoolean("isCompleted")) {
-                    continue;
-                }
-                
-                int reminderId = reminder.getInt("id");
-                
-                // Skip if already triggered
-                if (triggeredReminders.contains(reminderId)) {
-                    continue;
-                }
-                
-                String reminderDate = reminder.getString("date");
-                String reminderTime = reminder.getString("time");
-                
-                Log.d(TAG, "Checking reminder: " + reminder.getString("title") + " at " + reminderDate + " " + reminderTime);
-                
-                // Check if reminder is due (only trigger after the scheduled time)
-                if (reminderDate.equals(currentDate)) {
-                    try {
-                        Date reminderDateTime = timeFormat.parse(reminderTime);
-                        Date currentDateTime = timeFormat.parse(currentTime);
-                        
-                        if (reminderDateTime != null && currentDateTime != null) {
-                            long timeDiff = currentDateTime.getTime() - reminderDateTime.getTime();
-                            
-                            // Only trigger if current time is after reminder time (timeDiff >= 0)
-                            // And within 2 minute window for reliability
-                            if (timeDiff >= 0 && timeDiff <= 120000) {
-                                Log.d(TAG, "Found due reminder: " + reminder.getString("title"));
-                                triggeredReminders.add(reminderId);
-                                triggerVirtualCall(reminder);
-                            }
-                        }
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error parsing time: " + e.getMessage());
-                    }
-                }
-            }
-            
-            // Clean up old triggered reminders (older than 5 minutes)
-            cleanupTriggeredReminders();
-            
+            int pending = engine.reload();
+            Log.d(TAG, "Loaded reminders, " + pending + " pending");
         } catch (Exception e) {
-            Log.e(TAG, "Error checking reminders: " + e.getMessage());
+            Log.e(TAG, "Error loading reminders: " + e.getMessage());
+            metrics.increment(Metrics.FAILURES);
+        } finally {
+            wakeLocks.release(WakeLockManager.STAGE_INGEST);
         }
+        
+        checkForDueReminders();
     }
     
-    private void cleanupTriggeredReminders() {
-        // Remove reminders that were triggered more than 5 minutes ago
-        // This prevents the same reminder from being triggered multiple times
-        // but allows it to be triggered again if rescheduled
-        if (triggeredReminders.size() > 50) {
-            triggeredReminders.clear();
+    private void applyReminderChange(ReminderRecord reminder, long generation) {
+        if (!isRunning) {
+            return;
+        }
+        
+        if (engine.apply(reminder, generation)) {
+            // The new head may already be due (e.g. a reminder set for right now)
+            checkForDueReminders();
         }
     }
     
-    private void triggerVirtualCall(JSONObject reminder) {
+    private void checkForDueReminders() {
+        wakeLocks.hold(WakeLockManager.STAGE_CHECK, CHECK_WAKE_LOCK_MS);
+        long cpuStart = Debug.threadCpuTimeNanos();
         try {
-            Log.d(TAG, "Triggering virtual call for: " + reminder.getString("title"));
-            
-            // Enhanced priority order with better error handling
-            boolean success = false;
-            
-            // Try full-screen activity first (most reliable when app is closed)
-            success = startFullScreenCall(reminder);
-            Log.d(TAG, "Full-screen activity started: " + success);
-            
-            // If full-screen fails, try overlay (if permission available)
-            if (!success && shouldUseOverlay()) {
-                success = startOverlayCall(reminder);
-                Log.d(TAG, "Overlay call started: " + success);
-            }
-            
-            // Always show notification as backup (user can tap to open app)
-            showVirtualCallNotification(reminder);
-            
-            // If nothing worked, at least we have the notification
-            if (!success) {
-                Log.w(TAG, "Virtual call methods failed, relying on notification");
-            } else {
-                Log.d(TAG, "Virtual call triggered successfully");
-            }
-            
+            engine.check();
+            Log.d(TAG, "Checked due reminders, " + engine.size() + " pending");
         } catch (Exception e) {
-            Log.e(TAG, "Error triggering virtual call: " + e.getMessage());
-            // Always ensure notification is shown as final fallback
-            try {
-                showVirtualCallNotification(reminder);
-            } catch (Exception fallbackError) {
-                Log.e(TAG, "Even notification fallback failed: " + fallbackError.getMessage());
-            }
+            Log.e(TAG, "Error checking reminders: " + e.getMessage());
+            metrics.increment(Metrics.FAILURES);
         }
+        // Everything found due in this check rings as one call
+        deliveryPipeline.flush(nextUpcomingDueAt());
+        metrics.record(Metrics.CHECK_CPU_US, (Debug.threadCpuTimeNanos() - cpuStart) / 1000);
+        
+        // Wake up again only when the next reminder is due
+        scheduler.arm(engine.nextDueAt(), engine.now());
+        startPreroll();
+        scheduleIdleCheck();
+        wakeLocks.release(WakeLockManager.STAGE_CHECK);
     }
     
-    private boolean startOverlayCall(JSONObject reminder) {
+    // Earliest occurrence not due yet within the pre-roll lead, or -1
+    private long nextUpcomingDueAt() {
+        long next = -1;
         try {
-            Log.d(TAG, "Attempting to start overlay call service");
-            
-            // Check overlay permission first
-            if (!shouldUseOverlay()) {
-                Log.w(TAG, "Overlay permission not available");
-                return false;
-            }
-            
-            Intent overlayIntent = new Intent(this, OverlayCallService.class);
-            overlayIntent.setAction(OverlayCallService.ACTION_SHOW_OVERLAY_CALL);
-            overlayIntent.putExtra("reminderTitle", reminder.getString("title"));
-            overlayIntent.putExtra("reminderDescription", reminder.optString("description", ""));
-            overlayIntent.putExtra("reminderId", reminder.getInt("id"));
-            overlayIntent.putExtra("reminderDate", reminder.getString("date"));
-            overlayIntent.putExtra("reminderTime", reminder.getString("time"));
-            
-            // Start overlay service
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-                startForegroundService(overlayIntent);
-            } else {
-                startService(overlayIntent);
+            int count = engine.upcoming(upcomingIds, upcomingDueTimes);
+            for (int i = 0; i < count; i++) {
+                if (next < 0 || upcomingDueTimes[i] < next) {
+                    next = upcomingDueTimes[i];
+                }
             }
-            
-            Log.d(TAG, "Started overlay call service");
-            
-            // Give overlay time to appear
-            Thread.sleep(300);
-            return true;
         } catch (Exception e) {
-            Log.e(TAG, "Error starting overlay call: " + e.getMessage());
-            return false;
+            Log.e(TAG, "Error reading upcoming reminders: " + e.getMessage());
         }
+        return next;
     }
     
-    private boolean startFullScreenCall(JSONObject reminder) {
-        try {
-            Log.d(TAG, "Attempting to start full-screen call activity");
-            
-            Intent callIntent = new Intent(this, VirtualCallActivity.class);
-            callIntent.putExtra("reminderTitle", reminder.getString("title"));
-            callIntent.putExtra("reminderDescription", reminder.optString("description", ""));
-            callIntent.putExtra("reminderId", reminder.getInt("id"));
-            callIntent.putExtra("reminderDate", reminder.getString("date"));
-            callIntent.putExtra("reminderTime", reminder.getString("time"));
-            
-            // Enhanced flags for better background launching
-            callIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | 
-                              Intent.FLAG_ACTIVITY_CLEAR_TOP | 
-                              Intent.FLAG_ACTIVITY_SINGLE_TOP |
-                              Intent.FLAG_ACTIVITY_EXCLUDE_FROM_RECENTS |
-                              Intent.FLAG_ACTIVITY_BROUGHT_TO_FRONT |
-                              Intent.FLAG_ACTIVITY_NO_HISTORY |
-                              Intent.FLAG_ACTIVITY_REORDER_TO_FRONT);
-            
-            startActivity(callIntent);
-            Log.d(TAG, "Started virtual call activity");
-            
-            // Give activity time to start
-            Thread.sleep(500);
-            return true;
-        } catch (Exception e) {
-            Log.e(TAG, "Error starting full screen call: " + e.getMessage());
-            return false;
-        }
+    private void scheduleIdleCheck() {
+        handler.removeCallbacks(idleCheck);
+        handler.postDelayed(idleCheck, IDLE_CHECK_DELAY_MS);
     }
     
-    private boolean shouldUseOverlay() {
-        // Check if overlay permission is granted
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            return Settings.canDrawOverlays(this);
+    /**
+     * Low-power mode: with nothing due within LowPowerController.IDLE_WINDOW_MS
+     * and no call still ringing, leave the foreground and stop. The alarm
+     * armed for the next reminder's pre-roll starts the service again.
+     */
+    private void maybeEnterLowPower() {
+        if (!isRunning || !engine.isIdleFor(LowPowerController.IDLE_WINDOW_MS)) {
+            return;
+        }
+        if (!deliveryPipeline.isIdle()) {
+            scheduleIdleCheck();
+            return;
+        }
+        
+        stoppingForIdle = true;
+        lowPower.enterIdle(engine.nextDueAt());
+        stopForeground(STOP_FOREGROUND_REMOVE);
+        if (!stopSelfResult(lastStartId)) {
+            // A start request arrived meanwhile and will bring the service back to the foreground
+            stoppingForIdle = false;
+            lowPower.onServiceStarted();
         }
-        return true;
     }
     
-    private void showVirtualCallNotification(JSONObject reminder) {
+    /**
+     * Pre-roll stage: when the next reminder is due within a few seconds,
+     * build the calls of the reminders coming due, load the web call screen
+     * used once the call is answered, and check again right at the due time.
+     */
+    private void startPreroll() {
+        long remaining = engine.prerollRemaining();
+        handler.removeCallbacks(dueCheck);
+        if (remaining < 0) {
+            wakeLocks.release(WakeLockManager.STAGE_PREROLL);
+            return;
+        }
+        Log.d(TAG, "Pre-roll started, next reminder due in " + remaining + "ms");
+        // Keep the CPU up until the due check so the timer is not deferred by sleep
+        wakeLocks.hold(WakeLockManager.STAGE_PREROLL, remaining + CHECK_WAKE_LOCK_MS);
+        handler.postDelayed(dueCheck, remaining);
         try {
-            // Create full-screen intent
-            Intent fullScreenIntent = new Intent(this, VirtualCallActivity.class);
-            fullScreenIntent.putExtra("reminderTitle", reminder.getString("title"));
-            fullScreenIntent.putExtra("reminderDescription", reminder.optString("description", ""));
-            fullScreenIntent.putExtra("reminderId", reminder.getInt("id"));
-            fullScreenIntent.putExtra("reminderDate", reminder.getString("date"));
-            fullScreenIntent.putExtra("reminderTime", reminder.getString("time"));
-            fullScreenIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | 
-                                    Intent.FLAG_ACTIVITY_CLEAR_TOP |
-                                    Intent.FLAG_ACTIVITY_SINGLE_TOP);
-            
-            PendingIntent fullScreenPendingIntent = PendingIntent.getActivity(
-                this, reminder.getInt("id"), fullScreenIntent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            // Create answer action
-            Intent answerIntent = new Intent(this, MainActivity.class);
-            answerIntent.putExtra("action", "answer_call");
-            answerIntent.putExtra("reminderId", reminder.getInt("id"));
-            answerIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
-            
-            PendingIntent answerPendingIntent = PendingIntent.getActivity(
-                this, reminder.getInt("id") + 1000, answerIntent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            // Create dismiss action
-            Intent dismissIntent = new Intent(this, MainActivity.class);
-            dismissIntent.putExtra("action", "dismiss_call");
-            dismissIntent.putExtra("reminderId", reminder.getInt("id"));
-            dismissIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
-            
-            PendingIntent dismissPendingIntent = PendingIntent.getActivity(
-                this, reminder.getInt("id") + 2000, dismissIntent,
-                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
-            );
-            
-            // Build notification
-            NotificationCompat.Builder builder = new NotificationCompat.Builder(this, CALL_CHANNEL_ID)
-                .setSmallIcon(R.drawable.ic_stat_notification)
-                .setContentTitle("TimeTuneAI - Incoming Call")
-                .setContentText(reminder.getString("title"))
-                .setLargeIcon((Bitmap) null) 
-                .setPriority(NotificationCompat.PRIORITY_HIGH)
-                .setCategory(NotificationCompat.CATEGORY_CALL)
-                .setFullScreenIntent(fullScreenPendingIntent, true)
-                .setAutoCancel(false)
-                .setOngoing(true)
-                .setVibrate(new long[]{1000, 1000, 1000, 1000})
-                .setLights(0xFFF97316, 1000, 1000)
-                .setSound(null)
-                .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
-                .setShowWhen(true)
-                .setWhen(System.currentTimeMillis())
-                .setTimeoutAfter(60000) // Auto-dismiss after 1 minute
-                .addAction(R.drawable.ic_stat_notification, "Answer", answerPendingIntent)
-                .addAction(R.drawable.ic_stat_notification, "Dismiss", dismissPendingIntent);
-            
-            // Set custom heads-up display
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                builder.setDefaults(Notification.DEFAULT_VIBRATE | Notification.DEFAULT_LIGHTS);
+            int count = engine.upcoming(upcomingIds, upcomingDueTimes);
+            for (int i = 0; i < count; i++) {
+                ReminderRecord reminder = repository.find(upcomingIds[i]);
+                if (reminder != null) {
+                    deliveryPipeline.prepare(reminder, upcomingDueTimes[i]);
+                }
             }
-            
-            notificationManager.notify(reminder.getInt("id") + 10000, builder.build());
-            
-            Log.d(TAG, "Virtual call notification shown for: " + reminder.getString("title"));
-            
         } catch (Exception e) {
-            Log.e(TAG, "Error showing virtual call notification: " + e.getMessage());
+            Log.e(TAG, "Error preparing calls: " + e.getMessage());
+        }
+        try {
+            WebViewPool.get(this).prewarm();
+        } catch (Exception e) {
+            Log.e(TAG, "Error pre-warming call screen: " + e.getMessage());
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,404 @@
+package com.timetuneai.app;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide owner of the reminders synced from the JS layer. The bridge
+ * applies single-reminder deltas here and the background service listens for
+ * them, so one edit only touches the affected reminder on disk and in the
+ * scheduler. Every delta carries a version number; anything not newer than
+ * what is already held for that id is rejected as stale.
+ *
+ * Reminders are kept in a ReminderStore under files/reminders, indexed by
+ * the due time to schedule next; for a recurring reminder that is its next
+ * occurrence, moved forward by advanceRecurrence as occurrences pass. The
+ * legacy "reminders" JSON string in the TimeTuneAI preferences is migrated
+ * once. This is the ReminderEngine's storage on a device. The versions of
+ * deleted ids are kept beside it in Tombstones until a full sync confirms
+ * the deletes.
+ *
+ * Due times are resolved to instants in the default time zone when written.
+ * The JSON keeps the wall-clock date and time, so after a time zone change
+ * resolveDueTimes re-derives every instant from it.
+ */
+public class ReminderRepository implements ReminderEngine.Storage {
+    private static final String TAG = "ReminderRepository";
+    private static final String PREFS_NAME = "TimeTuneAI";
+    private static final String KEY_REMINDERS = "reminders";
+    private static final String KEY_VERSIONS = "reminder_versions";
+    private static final String STORE_DIR = "reminders";
+    private static final String TOMBSTONE_FILE = "tombstones.bin";
+    // A full sync is read into a store here and copied over only once it parsed cleanly
+    private static final String STAGING_DIR = "reminders-staging";
+    private static final long FLUSH_DELAY_MS = 250;
+
+    public interface Listener {
+        void onReminderChanged(ReminderRecord reminder);
+
+        void onReminderRemoved(int reminderId);
+
+        void onRemindersReplaced();
+    }
+
+    private static ReminderRepository instance;
+
+    private final Context context;
+    private final Handler writeHandler;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // Decoded reminders, each valid while the stored version for its id is unchanged
+    private final Map<Integer, CachedRecord> decoded = new HashMap<>();
+    private String jsonCache;
+    private long jsonCacheGeneration = -1;
+    private ReminderStore store;
+    // Versions of deleted ids, so a late upsert cannot resurrect them
+    private Tombstones tombstones;
+    private boolean flushPending = false;
+
+    private static class CachedRecord {
+        final long version;
+        final ReminderRecord record;
+
+        CachedRecord(long version, ReminderRecord record) {
+            this.version = version;
+            this.record = record;
+        }
+    }
+
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            flush();
+        }
+    };
+
+    public static synchronized ReminderRepository get(Context context) {
+        if (instance == null) {
+            instance = new ReminderRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ReminderRepository(Context context) {
+        this.context = context;
+        HandlerThread writeThread = new HandlerThread("ReminderRepositoryWriter");
+        writeThread.start();
+        writeHandler = new Handler(writeThread.getLooper());
+        open();
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /** Visits id, due time and flags of every stored reminder without decoding any text. */
+    @Override
+    public synchronized void forEachRecord(ReminderStore.RecordVisitor visitor) {
+        store.forEach(visitor);
+    }
+
+    @Override
+    public synchronized ReminderRecord find(int reminderId) {
+        long version = store.version(reminderId);
+        CachedRecord cached = decoded.get(reminderId);
+        if (cached != null && cached.version == version) {
+            return cached.record;
+        }
+
+        try {
+            String json = store.readText(reminderId);
+            if (json == null) {
+                decoded.remove(reminderId);
+                return null;
+            }
+            long parseStart = System.nanoTime();
+            ReminderRecord record = ReminderRecord.fromJson(new JSONObject(json), TimeZone.getDefault());
+            Metrics.get().record(Metrics.PARSE_US, (System.nanoTime() - parseStart) / 1000);
+            decoded.put(reminderId, new CachedRecord(version, record));
+            return record;
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading reminder " + reminderId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** The stored JSON of a reminder, or null when there is none. */
+    public synchronized String readJson(int reminderId) throws IOException {
+        return store.readText(reminderId);
+    }
+
+    /** A version newer than anything held for this id, for edits made on the native side. */
+    public synchronized long nextVersion(int reminderId) {
+        long current = store.contains(reminderId) ? store.version(reminderId) : -1;
+        current = Math.max(current, tombstones.version(reminderId));
+        return Math.max(System.currentTimeMillis(), current + 1);
+    }
+
+    @Override
+    public synchronized long generation() {
+        return store.generation();
+    }
+
+    public synchronized String toJson() {
+        if (jsonCache != null && jsonCacheGeneration == store.generation()) {
+            return jsonCache;
+        }
+
+        // The side segment already holds each reminder's JSON, so no parsing is needed
+        final StringBuilder json = new StringBuilder("[");
+        store.forEach((id, dueAt, flags) -> {
+            try {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append(store.readText(id));
+            } catch (IOException e) {
+                Log.e(TAG, "Error reading reminder " + id + ": " + e.getMessage());
+            }
+        });
+        jsonCache = json.append(']').toString();
+        jsonCacheGeneration = store.generation();
+        return jsonCache;
+    }
+
+    /**
+     * Replaces every reminder with the given JSON array. Used for the initial
+     * sync; versions seen so far are kept so late deltas are still ordered.
+     * A payload identical to the last full sync, with no writes since, is a
+     * no-op and does not invalidate anything. Returns whether data changed.
+     */
+    public boolean replaceAll(String remindersJson) throws IOException {
+        long contentHash = contentHash(remindersJson);
+        synchronized (this) {
+            if (store.isSyncedWith(contentHash)) {
+                Log.d(TAG, "Full sync unchanged, keeping cached reminders");
+                return false;
+            }
+            // Throws before touching the store when the payload is malformed
+            long ingestStart = System.nanoTime();
+            ReminderJsonReader.replace(store, stagingDirectory(), remindersJson, TimeZone.getDefault(),
+                System.currentTimeMillis() - ReminderEngine.TRIGGER_WINDOW_MS);
+            Metrics.get().record(Metrics.PARSE_US, (System.nanoTime() - ingestStart) / 1000);
+            // Ids missing from a full sync are deleted on the JS side too
+            int pruned = tombstones.prune(store);
+            if (pruned > 0) {
+                Log.d(TAG, "Full sync confirmed " + pruned + " deletes");
+            }
+            decoded.clear();
+            store.markSynced(contentHash);
+            scheduleFlush();
+        }
+        for (Listener listener : listeners) {
+            listener.onRemindersReplaced();
+        }
+        return true;
+    }
+
+    public boolean upsert(String reminderJson, long version) throws JSONException, IOException {
+        long parseStart = System.nanoTime();
+        JSONObject reminder = new JSONObject(reminderJson);
+        Metrics.get().record(Metrics.PARSE_US, (System.nanoTime() - parseStart) / 1000);
+        ReminderRecord record;
+        synchronized (this) {
+            if (!acceptVersion(reminder.getInt("id"), version)) {
+                return false;
+            }
+            record = write(reminder, version, TimeZone.getDefault());
+            scheduleFlush();
+        }
+        for (Listener listener : listeners) {
+            listener.onReminderChanged(record);
+        }
+        return true;
+    }
+
+    public boolean delete(int reminderId, long version) throws IOException {
+        synchronized (this) {
+            if (!acceptVersion(reminderId, version)) {
+                return false;
+            }
+            tombstones.put(reminderId, version);
+            scheduleFlush();
+            if (!store.delete(reminderId)) {
+                return true;
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.onReminderRemoved(reminderId);
+        }
+        return true;
+    }
+
+    public boolean setCompleted(int reminderId, boolean completed, long version)
+            throws JSONException, IOException {
+        ReminderRecord record;
+        synchronized (this) {
+            String json = store.readText(reminderId);
+            if (json == null || !acceptVersion(reminderId, version)) {
+                return false;
+            }
+            JSONObject reminder = new JSONObject(json);
+            reminder.put("isCompleted", completed);
+            record = write(reminder, version, TimeZone.getDefault());
+            scheduleFlush();
+        }
+        for (Listener listener : listeners) {
+            listener.onReminderChanged(record);
+        }
+        return true;
+    }
+
+    /**
+     * Re-resolves every indexed due time from the stored wall-clock date and
+     * time in the current default time zone, after the zone or its rules
+     * changed. Listeners see it as a full replace.
+     */
+    public void resolveDueTimes() {
+        final int[] resolved = {0};
+        synchronized (this) {
+            decoded.clear();
+            final TimeZone zone = TimeZone.getDefault();
+            final long from = System.currentTimeMillis() - ReminderEngine.TRIGGER_WINDOW_MS;
+            store.forEach((id, dueAt, flags) -> {
+                try {
+                    ReminderRecord record = ReminderRecord.fromJson(new JSONObject(store.readText(id)), zone);
+                    store.setDueAt(id, record.nextDueAt(from));
+                    resolved[0]++;
+                } catch (Exception e) {
+                    Log.e(TAG, "Error resolving reminder " + id + ": " + e.getMessage());
+                }
+            });
+            store.markChanged();
+            scheduleFlush();
+        }
+        Log.d(TAG, "Resolved " + resolved[0] + " due times in " + TimeZone.getDefault().getID());
+        for (Listener listener : listeners) {
+            listener.onRemindersReplaced();
+        }
+    }
+
+    /**
+     * Moves a recurring reminder's indexed due time past an occurrence that
+     * has fired or was missed, skipping any occurrences already too old to
+     * ring. Returns the new due time, or -1 when the reminder does not recur
+     * or its series has ended.
+     */
+    @Override
+    public synchronized long advanceRecurrence(int reminderId, long pastDueAt, long now) {
+        if ((store.flags(reminderId) & ReminderStore.FLAG_RECURRING) == 0) {
+            return -1;
+        }
+        ReminderRecord reminder = find(reminderId);
+        if (reminder == null || !reminder.isRecurring()) {
+            return -1;
+        }
+        long from = Math.max(pastDueAt + 1, now - ReminderEngine.TRIGGER_WINDOW_MS);
+        long nextDueAt = reminder.nextDueAt(from);
+        store.setDueAt(reminderId, nextDueAt);
+        scheduleFlush();
+        return nextDueAt;
+    }
+
+    // 64-bit FNV-1a; far cheaper than parsing and rewriting an unchanged payload
+    private static long contentHash(String json) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < json.length(); i++) {
+            hash ^= json.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private boolean acceptVersion(int reminderId, long version) {
+        long current = store.contains(reminderId) ? store.version(reminderId) : -1;
+        current = Math.max(current, tombstones.version(reminderId));
+        if (version <= current) {
+            Log.d(TAG, "Rejected stale update for " + reminderId + ": " + version + " <= " + current);
+            return false;
+        }
+        return true;
+    }
+
+    // The due instant is resolved here, once per write, and stored alongside the flags
+    private ReminderRecord write(JSONObject reminder, long version, TimeZone zone) throws IOException {
+        ReminderRecord record = ReminderJsonReader.put(store, reminder, version, zone,
+            System.currentTimeMillis() - ReminderEngine.TRIGGER_WINDOW_MS);
+        // Written again at a newer version, so the store's own version now guards it
+        tombstones.remove(record.id);
+        return record;
+    }
+
+    private void open() {
+        try {
+            File directory = new File(context.getFilesDir(), STORE_DIR);
+            store = new ReminderStore(directory);
+            tombstones = new Tombstones(new File(directory, TOMBSTONE_FILE));
+            migrateFromPreferences();
+            Log.d(TAG, "Opened reminder store with " + store.size() + " reminders");
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open reminder store", e);
+        }
+    }
+
+    // One-time import of the JSON string the app used to keep in SharedPreferences
+    private void migrateFromPreferences() throws IOException {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String remindersJson = prefs.getString(KEY_REMINDERS, null);
+        if (remindersJson == null) {
+            return;
+        }
+
+        try {
+            // Also starts over if an earlier migration was interrupted
+            int count = ReminderJsonReader.replace(store, stagingDirectory(), remindersJson, TimeZone.getDefault(),
+                System.currentTimeMillis() - ReminderEngine.TRIGGER_WINDOW_MS);
+            decoded.clear();
+            store.flush();
+            Log.d(TAG, "Migrated " + count + " reminders from preferences");
+        } catch (IOException e) {
+            Log.e(TAG, "Discarding unreadable legacy reminders: " + e.getMessage());
+        }
+
+        prefs.edit().remove(KEY_REMINDERS).remove(KEY_VERSIONS).commit();
+    }
+
+    private File stagingDirectory() {
+        return new File(context.getFilesDir(), STAGING_DIR);
+    }
+
+    // Writes land in the mapped index right away; forcing them to disk is coalesced
+    private void scheduleFlush() {
+        if (!flushPending) {
+            flushPending = true;
+            writeHandler.postDelayed(flushRunnable, FLUSH_DELAY_MS);
+        }
+    }
+
+    private synchronized void flush() {
+        flushPending = false;
+        try {
+            store.flush();
+            tombstones.save();
+        } catch (IOException e) {
+            Log.e(TAG, "Error flushing reminder store: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.timetuneai.app;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.util.Log;
+
+/**
+ * Arms a single exact alarm for the earliest reminder in ReminderEngine.
+ * When the alarm fires it starts ReminderBackgroundService with
+ * ACTION_REMINDER_DUE, which drains the due reminders and re-arms for the
+ * next one. The CPU only wakes when something is actually due.
+ *
+ * The alarm fires PREROLL_LEAD_MS before the due time so the service can
+ * pre-warm the call screen and ring on time; once inside that lead the alarm
+ * is re-armed at the due time itself as a backstop.
+ *
+ * There is one alarm per app, whichever instance armed it, so the time it
+ * is armed for is kept process-wide. A new process does not know what an
+ * earlier one left armed, and its first call always reaches AlarmManager.
+ */
+public class ReminderScheduler {
+    private static final String TAG = "ReminderScheduler";
+    private static final int ALARM_REQUEST_CODE = 2001;
+
+    // Shared by every instance; Long.MIN_VALUE until this process arms or cancels
+    private static long armedAt = Long.MIN_VALUE;
+
+    private final Context context;
+    private final AlarmManager alarmManager;
+
+    public ReminderScheduler(Context context) {
+        this.context = context.getApplicationContext();
+        this.alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+    }
+
+    /**
+     * Arms the exact alarm for the pre-roll of {@code nextDueAt}, or for
+     * the due time itself once the pre-roll has started, or cancels it when
+     * it is -1. Re-arming for an unchanged time is a no-op.
+     */
+    public void arm(long nextDueAt, long now) {
+        synchronized (ReminderScheduler.class) {
+            armLocked(nextDueAt, now);
+        }
+    }
+
+    private void armLocked(long nextDueAt, long now) {
+        if (alarmManager == null) {
+            Log.e(TAG, "AlarmManager not available");
+            return;
+        }
+
+        long alarmAt = nextDueAt;
+        if (nextDueAt >= 0 && nextDueAt - ReminderEngine.PREROLL_LEAD_MS > now) {
+            alarmAt = nextDueAt - ReminderEngine.PREROLL_LEAD_MS;
+        }
+        if (alarmAt == armedAt) {
+            return;
+        }
+
+        PendingIntent pendingIntent = createAlarmIntent();
+        if (nextDueAt < 0) {
+            alarmManager.cancel(pendingIntent);
+            armedAt = -1;
+            Log.d(TAG, "No pending reminders, alarm cancelled");
+            return;
+        }
+
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S && !alarmManager.canScheduleExactAlarms()) {
+                alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, alarmAt, pendingIntent);
+                Log.w(TAG, "Exact alarms not permitted, armed inexact alarm for " + alarmAt);
+            } else {
+                alarmManager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, alarmAt, pendingIntent);
+                Log.d(TAG, "Armed exact alarm for " + alarmAt + " (due " + nextDueAt + ")");
+            }
+            armedAt = alarmAt;
+        } catch (Exception e) {
+            Log.e(TAG, "Error arming reminder alarm: " + e.getMessage());
+        }
+    }
+
+    private PendingIntent createAlarmIntent() {
+        Intent intent = new Intent(context, ReminderBackgroundService.class);
+        intent.setAction(ReminderBackgroundService.ACTION_REMINDER_DUE);
+        return PendingIntent.getForegroundService(
+            context, ALARM_REQUEST_CODE, intent,
+            PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE
+        );
+    }
+}
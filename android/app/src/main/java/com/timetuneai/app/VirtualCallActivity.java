@@ -11,8 +11,6 @@ import android.view.View;
 import android.view.Window;
 import android.view.WindowManager;
 import android.webkit.WebView;
-import android.webkit.WebViewClient;
-import android.webkit.WebSettings;
 
 public class VirtualCallActivity extends Activity {
     private static final String TAG = "VirtualCallActivity";
@@ -26,6 +24,11 @@ public class VirtualCallActivity extends Activity {
         
         Log.d(TAG, "VirtualCallActivity created");
         
+        // Tell the delivery pipeline the call is on screen
+        CallDeliveryPipeline.get(this).confirm(getIntent().getIntExtra("reminderId", 0),
+            CallDeliveryPipeline.STRATEGY_ACTIVITY);
+        trace(LatencyTracer.STAGE_SURFACE_CREATED);
+        
         // Set up full-screen call activity
         setupFullScreenCall();
         
@@ -35,81 +38,95 @@ public class VirtualCallActivity extends Activity {
         // Set up auto-dismiss timeout
         setupAutoTimeout();
         
-        // Create WebView for the call interface
-        webView = new WebView(this);
-        setupWebView();
+        showNativeCall();
+    }
+    
+    /** Shows the native call screen, which draws in the first frame without a WebView. */
+    private void showNativeCall() {
+        final Intent intent = getIntent();
+        View callView = NativeCallView.create(this,
+            intent.getStringExtra("reminderTitle"),
+            intent.getStringExtra("reminderDescription"),
+            intent.getStringExtra("reminderDate"),
+            intent.getStringExtra("reminderTime"),
+            new NativeCallView.Listener() {
+                @Override
+                public void onAnswer() {
+                    upgradeToWebCall();
+                }
+                
+                @Override
+                public void onDismiss() {
+                    CallActions.dismiss(VirtualCallActivity.this, CallDeliveryPipeline.sessionIds(intent));
+                    finish();
+                }
+                
+                @Override
+                public void onSnooze() {
+                    CallActions.snooze(VirtualCallActivity.this, CallDeliveryPipeline.sessionIds(intent),
+                        System.currentTimeMillis());
+                    finish();
+                }
+            });
+        setContentView(callView);
+        callView.post(() -> trace(LatencyTracer.STAGE_RING_VISIBLE));
+    }
+    
+    private void trace(int stage) {
+        LatencyTracer.get(this).mark(CallDeliveryPipeline.STRATEGY_ACTIVITY, stage, getIntent());
+    }
+    
+    private void traceSinceAnswer(int stage, long answeredAt) {
+        LatencyTracer.get(this).mark(CallDeliveryPipeline.STRATEGY_ACTIVITY, stage,
+            getIntent().getIntExtra("reminderId", 0), answeredAt, System.currentTimeMillis());
+    }
+    
+    /** Replaces the native screen with the web call screen once the call is answered. */
+    private void upgradeToWebCall() {
+        if (webView != null) {
+            return;
+        }
+        Log.d(TAG, "Call answered, loading web call screen");
+        final long answeredAt = System.currentTimeMillis();
         
-        webView.setWebViewClient(new WebViewClient() {
+        // Take the pre-warmed call screen when the pre-roll prepared one
+        webView = WebViewPool.get(this).obtain(this, new WebViewPool.ReadyCallback() {
             @Override
-            public void onPageFinished(WebView view, String url) {
-                super.onPageFinished(view, url);
-                
-                Log.d(TAG, "WebView page finished loading");
+            public void onReady(WebView view, CallChannel channel, boolean warm) {
+                Log.d(TAG, "WebView page finished loading (" + (warm ? "warm" : "cold") + ")");
                 
-                // Get reminder data from intent
+                traceSinceAnswer(LatencyTracer.STAGE_ANSWER_PAGE_LOADED, answeredAt);
+                channel.setListener(new CallChannel.Listener() {
+                    @Override
+                    public void onCallAcknowledged(int reminderId) {
+                        traceSinceAnswer(LatencyTracer.STAGE_ANSWER_JS_ACK, answeredAt);
+                    }
+                    
+                    @Override
+                    public void onCallEnded() {
+                        finish();
+                    }
+                });
                 Intent intent = getIntent();
-                String reminderTitle = intent.getStringExtra("reminderTitle");
-                String reminderDescription = intent.getStringExtra("reminderDescription");
-                int reminderId = intent.getIntExtra("reminderId", 0);
-                String reminderDate = intent.getStringExtra("reminderDate");
-                String reminderTime = intent.getStringExtra("reminderTime");
-                
-                Log.d(TAG, "Triggering virtual call for: " + reminderTitle);
-                
-                // Inject JavaScript to trigger virtual call
-                String js = String.format(
-                    "window.triggerVirtualCall && window.triggerVirtualCall({" +
-                    "id: %d, " +
-                    "title: '%s', " +
-                    "description: '%s', " +
-                    "date: '%s', " +
-                    "time: '%s', " +
-                    "category: 'personal', " +
-                    "priority: 'medium', " +
-                    "isCompleted: false" +
-                    "});",
-                    reminderId,
-                    reminderTitle != null ? reminderTitle.replace("'", "\\'") : "",
-                    reminderDescription != null ? reminderDescription.replace("'", "\\'") : "",
-                    reminderDate != null ? reminderDate : "",
-                    reminderTime != null ? reminderTime : ""
-                );
-                
-                Log.d(TAG, "Executing JavaScript: " + js);
-                webView.evaluateJavascript(js, null);
+                channel.showCall(
+                    intent.getIntExtra("reminderId", 0),
+                    CallDeliveryPipeline.sessionIds(intent),
+                    intent.getStringExtra("reminderTitle"),
+                    intent.getStringExtra("reminderDescription"),
+                    intent.getStringExtra("reminderDate"),
+                    intent.getStringExtra("reminderTime"),
+                    true);
             }
             
             @Override
-            public void onReceivedError(WebView view, int errorCode, String description, String failingUrl) {
-                super.onReceivedError(view, errorCode, description, failingUrl);
-                Log.e(TAG, "WebView error: " + description);
+            public void onError(String description) {
                 // Close activity on error
                 finish();
             }
         });
-        
-        // Load the main app
-        String appUrl = "file:///android_asset/public/index.html";
-        Log.d(TAG, "Loading WebView with URL: " + appUrl);
-        webView.loadUrl(appUrl);
         setContentView(webView);
     }
     
-    private void setupWebView() {
-        WebSettings settings = webView.getSettings();
-        settings.setJavaScriptEnabled(true);
-        settings.setDomStorageEnabled(true);
-        settings.setAllowFileAccess(true);
-        settings.setAllowContentAccess(true);
-        settings.setMediaPlaybackRequiresUserGesture(false);
-        settings.setCacheMode(WebSettings.LOAD_NO_CACHE);
-        
-        // Enable debugging in debug builds
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
-            WebView.setWebContentsDebuggingEnabled(true);
-        }
-    }
-    
     private void setupAutoTimeout() {
         timeoutHandler = new Handler();
         timeoutRunnable = new Runnable() {
@@ -245,9 +262,19 @@ public class VirtualCallActivity extends Activity {
         super.onNewIntent(intent);
         Log.d(TAG, "VirtualCallActivity received new intent");
         setIntent(intent);
+        CallDeliveryPipeline.get(this).confirm(intent.getIntExtra("reminderId", 0),
+            CallDeliveryPipeline.STRATEGY_ACTIVITY);
+        trace(LatencyTracer.STAGE_SURFACE_CREATED);
         
         // Reset timeout
         cancelTimeout();
         setupAutoTimeout();
+        
+        // Ring again for the new reminder
+        if (webView != null) {
+            webView.destroy();
+            webView = null;
+        }
+        showNativeCall();
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.timetuneai.app;
+
+import android.content.Context;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+/**
+ * Holds the CPU awake only while reminder work is actually running, instead
+ * of one long wake lock for the life of the service. Each stage (ingesting
+ * reminders, checking what is due, the pre-roll wait before a due time, and
+ * delivering a call) has its own tagged partial wake lock with a short
+ * timeout, so a missed release costs seconds, not minutes.
+ *
+ * How long each stage held the CPU is recorded in {@link Metrics}, so
+ * battery cost can be read per stage. Thread-safe: the delivery stage is
+ * driven from CallDeliveryPipeline's thread.
+ */
+public class WakeLockManager {
+    private static final String TAG = "WakeLockManager";
+
+    public static final int STAGE_INGEST = 0;
+    public static final int STAGE_CHECK = 1;
+    public static final int STAGE_PREROLL = 2;
+    public static final int STAGE_DISPATCH = 3;
+    private static final String[] STAGE_NAMES = {"ingest", "check", "preroll", "dispatch"};
+    private static final int[] STAGE_HISTOGRAMS = {
+        Metrics.WAKE_LOCK_INGEST_MS, Metrics.WAKE_LOCK_CHECK_MS,
+        Metrics.WAKE_LOCK_PREROLL_MS, Metrics.WAKE_LOCK_DISPATCH_MS
+    };
+
+    private static WakeLockManager instance;
+
+    private final PowerManager.WakeLock[] locks = new PowerManager.WakeLock[STAGE_NAMES.length];
+    // Per stage: when the current hold started (elapsedRealtime, 0 when idle) and its timeout
+    private final long[] heldSince = new long[STAGE_NAMES.length];
+    private final long[] holdTimeout = new long[STAGE_NAMES.length];
+
+    public static synchronized WakeLockManager get(Context context) {
+        if (instance == null) {
+            instance = new WakeLockManager(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private WakeLockManager(Context context) {
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        if (powerManager == null) {
+            Log.e(TAG, "PowerManager not available");
+            return;
+        }
+        for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+            locks[stage] = powerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK,
+                "TimeTuneAI::" + STAGE_NAMES[stage]);
+            // One hold per stage; holding again just extends the timeout
+            locks[stage].setReferenceCounted(false);
+        }
+    }
+
+    /** Keeps the CPU awake for {@code stage} until released or {@code timeoutMs} passes. */
+    public synchronized void hold(int stage, long timeoutMs) {
+        PowerManager.WakeLock lock = locks[stage];
+        if (lock == null) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        if (heldSince[stage] != 0 && now - heldSince[stage] >= holdTimeout[stage]) {
+            // The previous hold ran out on its own
+            record(stage, holdTimeout[stage]);
+        }
+        if (heldSince[stage] == 0) {
+            heldSince[stage] = now;
+            holdTimeout[stage] = timeoutMs;
+        } else {
+            holdTimeout[stage] = now - heldSince[stage] + timeoutMs;
+        }
+        try {
+            lock.acquire(timeoutMs);
+        } catch (Exception e) {
+            Log.e(TAG, "Error acquiring " + STAGE_NAMES[stage] + " wake lock: " + e.getMessage());
+        }
+    }
+
+    public synchronized void release(int stage) {
+        PowerManager.WakeLock lock = locks[stage];
+        if (lock == null || heldSince[stage] == 0) {
+            return;
+        }
+        long heldMs = Math.min(SystemClock.elapsedRealtime() - heldSince[stage], holdTimeout[stage]);
+        record(stage, heldMs);
+        try {
+            if (lock.isHeld()) {
+                lock.release();
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error releasing " + STAGE_NAMES[stage] + " wake lock: " + e.getMessage());
+        }
+        Log.d(TAG, STAGE_NAMES[stage] + " held the CPU for " + heldMs + "ms");
+    }
+
+    public synchronized void releaseAll() {
+        for (int stage = 0; stage < STAGE_NAMES.length; stage++) {
+            release(stage);
+        }
+    }
+
+    private void record(int stage, long heldMs) {
+        heldSince[stage] = 0;
+        Metrics.get().record(STAGE_HISTOGRAMS[stage], heldMs);
+    }
+}
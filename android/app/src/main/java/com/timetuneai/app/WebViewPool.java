@@ -0,0 +1,204 @@
+package com.timetuneai.app;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.webkit.ConsoleMessage;
+import android.webkit.WebChromeClient;
+import android.webkit.WebResourceError;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebSettings;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+
+/**
+ * Keeps a WebView with the call screen already loaded, so answering a
+ * virtual call switches from the native call screen to the web one without a
+ * cold WebView start and page load. The scheduler's pre-roll stage calls
+ * {@link #prewarm} a few seconds before a reminder is due; the call surface
+ * takes the warm view with {@link #obtain} when the user answers, which falls
+ * back to a fresh one when nothing is warm.
+ *
+ * Views load call.html, the slim call-screen bundle, rather than the full
+ * app. Its console output is forwarded to logcat, including the "[boot]"
+ * parse and first-paint timings it reports.
+ *
+ * Views are built on a MutableContextWrapper around the application context
+ * and rebased onto the Activity or Service that shows them. A view is never
+ * handed out twice: the page state changes once a call is shown, so callers
+ * destroy it when done. All methods must be called on the main thread.
+ */
+public class WebViewPool {
+    private static final String TAG = "WebViewPool";
+    public static final String CALL_URL = "file:///android_asset/public/call.html";
+    // A warm view nobody claimed is dropped after this, it holds tens of MB
+    private static final long IDLE_TIMEOUT_MS = 2 * 60 * 1000;
+
+    public interface ReadyCallback {
+        /**
+         * The call screen has loaded and {@code channel} is connected to it;
+         * {@code warm} tells whether it was loaded ahead of time.
+         */
+        void onReady(WebView webView, CallChannel channel, boolean warm);
+
+        void onError(String description);
+    }
+
+    private static WebViewPool instance;
+
+    private final Context context;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private WebView warmView;
+    private PooledClient warmClient;
+
+    private final Runnable expireRunnable = new Runnable() {
+        @Override
+        public void run() {
+            if (warmView != null) {
+                Log.d(TAG, "Dropping unused warm WebView");
+                warmView.destroy();
+                warmView = null;
+                warmClient = null;
+            }
+        }
+    };
+
+    /** Tracks page load so a callback can attach before or after it finishes. */
+    private static class PooledClient extends WebViewClient {
+        private boolean loaded;
+        private CallChannel channel;
+        private String error;
+        private ReadyCallback callback;
+        private boolean warm;
+
+        void attach(WebView view, ReadyCallback callback, boolean warm) {
+            this.callback = callback;
+            this.warm = warm;
+            if (error != null) {
+                callback.onError(error);
+            } else if (loaded) {
+                callback.onReady(view, channel, warm);
+            }
+        }
+
+        @Override
+        public void onPageFinished(WebView view, String url) {
+            super.onPageFinished(view, url);
+            if (loaded || error != null) {
+                return;
+            }
+            try {
+                channel = CallChannel.open(view);
+            } catch (Exception e) {
+                fail("Could not open call channel: " + e.getMessage());
+                return;
+            }
+            loaded = true;
+            if (callback != null) {
+                callback.onReady(view, channel, warm);
+            }
+        }
+
+        @Override
+        public void onReceivedError(WebView view, WebResourceRequest request, WebResourceError error) {
+            super.onReceivedError(view, request, error);
+            // A failed subresource such as an icon still leaves a usable call screen
+            if (request.isForMainFrame()) {
+                fail(String.valueOf(error.getDescription()));
+            }
+        }
+
+        private void fail(String description) {
+            Log.e(TAG, "WebView error: " + description);
+            if (error != null) {
+                return;
+            }
+            error = description;
+            if (callback != null) {
+                callback.onError(description);
+            }
+        }
+    }
+
+    public static synchronized WebViewPool get(Context context) {
+        if (instance == null) {
+            instance = new WebViewPool(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private WebViewPool(Context context) {
+        this.context = context;
+    }
+
+    public boolean isWarm() {
+        return warmView != null;
+    }
+
+    /** Starts loading the call screen in a spare WebView unless one is already warm. */
+    public void prewarm() {
+        handler.removeCallbacks(expireRunnable);
+        handler.postDelayed(expireRunnable, IDLE_TIMEOUT_MS);
+        if (warmView != null) {
+            return;
+        }
+        try {
+            warmClient = new PooledClient();
+            warmView = create(context, warmClient);
+            Log.d(TAG, "Pre-warming call WebView");
+        } catch (Exception e) {
+            Log.e(TAG, "Error pre-warming WebView: " + e.getMessage());
+            warmView = null;
+            warmClient = null;
+        }
+    }
+
+    /**
+     * Returns a WebView for {@code owner}: the warm one when available,
+     * otherwise a fresh one that starts loading now. {@code callback} runs
+     * once the call screen is loaded, straight away if it already is.
+     */
+    public WebView obtain(Context owner, ReadyCallback callback) {
+        WebView view;
+        PooledClient client;
+        boolean warm = warmView != null;
+        if (warm) {
+            handler.removeCallbacks(expireRunnable);
+            view = warmView;
+            client = warmClient;
+            warmView = null;
+            warmClient = null;
+            ((MutableContextWrapper) view.getContext()).setBaseContext(owner);
+        } else {
+            client = new PooledClient();
+            view = create(owner, client);
+        }
+        Log.d(TAG, "Handing out " + (warm ? "warm" : "cold") + " WebView");
+        client.attach(view, callback, warm);
+        return view;
+    }
+
+    private static WebView create(Context base, PooledClient client) {
+        WebView view = new WebView(new MutableContextWrapper(base));
+        WebSettings settings = view.getSettings();
+        settings.setJavaScriptEnabled(true);
+        settings.setDomStorageEnabled(true);
+        settings.setAllowFileAccess(true);
+        settings.setAllowContentAccess(true);
+        settings.setMediaPlaybackRequiresUserGesture(false);
+        settings.setCacheMode(WebSettings.LOAD_NO_CACHE);
+        WebView.setWebContentsDebuggingEnabled(true);
+        view.setWebViewClient(client);
+        view.setWebChromeClient(new WebChromeClient() {
+            @Override
+            public boolean onConsoleMessage(ConsoleMessage message) {
+                Log.d(TAG, "Call screen: " + message.message());
+                return true;
+            }
+        });
+        view.loadUrl(CALL_URL);
+        return view;
+    }
+}
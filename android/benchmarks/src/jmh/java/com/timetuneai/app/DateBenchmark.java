@@ -0,0 +1,77 @@
+package com.timetuneai.app;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning each reminder's date and time strings into something comparable.
+ * The legacy check built two SimpleDateFormats per run, formatted the
+ * current date and time, and parsed every reminder's time; DueTimes
+ * resolves the pair to epoch millis with plain arithmetic.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DateBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int count;
+
+    private String[] dates;
+    private String[] times;
+
+    @Setup
+    public void setUp() {
+        JSONArray reminders = new JSONArray(SyntheticReminders.json(count));
+        dates = new String[count];
+        times = new String[count];
+        for (int i = 0; i < count; i++) {
+            JSONObject reminder = reminders.getJSONObject(i);
+            dates[i] = reminder.getString("date");
+            times[i] = reminder.getString("time");
+        }
+    }
+
+    @Benchmark
+    public void legacySimpleDateFormat(Blackhole blackhole) throws ParseException {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.US);
+        dateFormat.setTimeZone(SyntheticReminders.ZONE);
+        timeFormat.setTimeZone(SyntheticReminders.ZONE);
+        Date now = new Date(SyntheticReminders.NOW);
+        blackhole.consume(dateFormat.format(now));
+        String currentTime = timeFormat.format(now);
+        for (int i = 0; i < count; i++) {
+            // Every reminder, not just today's, so the work matches DueTimes below
+            blackhole.consume(dateFormat.parse(dates[i]));
+            blackhole.consume(timeFormat.parse(times[i]).getTime() - timeFormat.parse(currentTime).getTime());
+        }
+    }
+
+    @Benchmark
+    public void dueTimes(Blackhole blackhole) {
+        for (int i = 0; i < count; i++) {
+            blackhole.consume(DueTimes.toEpochMillis(dates[i], times[i], SyntheticReminders.ZONE));
+        }
+    }
+}
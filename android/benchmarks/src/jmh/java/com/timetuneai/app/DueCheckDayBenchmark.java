@@ -0,0 +1,93 @@
+package com.timetuneai.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A day of per-minute due checks, like the alarm-driven service, over
+ * reminders spread across 30 days. The linear scan walks every precomputed
+ * due time at each check, the way the service used to; the timing wheel
+ * only touches what is due. Divide by 1441 checks for the cost of one.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DueCheckDayBenchmark {
+    private static final long START = SyntheticReminders.NOW;
+    private static final long WINDOW_MS = 2 * DueTimes.MINUTE_MS;
+
+    @Param({"1000", "10000", "100000"})
+    public int count;
+
+    private long[] dueTimes;
+    private TimingWheel wheel;
+    private final int[] dueIds = new int[16];
+    private final long[] dueAt = new long[16];
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(count);
+        dueTimes = new long[count];
+        for (int i = 0; i < count; i++) {
+            dueTimes[i] = START + (long) (random.nextDouble() * 30 * DueTimes.DAY_MS);
+        }
+    }
+
+    // A day of checks drains the wheel, so every shot starts from a full one
+    @Setup(Level.Iteration)
+    public void fillWheel() {
+        wheel = new TimingWheel(START, count);
+        for (int i = 0; i < count; i++) {
+            wheel.add(i, dueTimes[i]);
+        }
+    }
+
+    @Benchmark
+    public long linearScan() {
+        boolean[] fired = new boolean[dueTimes.length];
+        long count = 0;
+        for (long now = START; now <= START + DueTimes.DAY_MS; now += DueTimes.MINUTE_MS) {
+            for (int i = 0; i < dueTimes.length; i++) {
+                long late = now - dueTimes[i];
+                if (!fired[i] && late >= 0 && late <= WINDOW_MS) {
+                    fired[i] = true;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long timingWheel() {
+        long fired = 0;
+        for (long now = START; now <= START + DueTimes.DAY_MS; now += DueTimes.MINUTE_MS) {
+            int polled;
+            do {
+                polled = wheel.pollDue(now, dueIds, dueAt);
+                for (int i = 0; i < polled; i++) {
+                    if (now - dueAt[i] <= WINDOW_MS) {
+                        fired++;
+                    }
+                }
+            } while (polled > 0);
+        }
+        return fired;
+    }
+}
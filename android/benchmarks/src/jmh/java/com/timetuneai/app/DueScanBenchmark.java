@@ -0,0 +1,136 @@
+package com.timetuneai.app;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the reminders due at one check. The legacy service walked the
+ * parsed JSON on every 30s tick, comparing date strings and parsing times;
+ * a linear scan over resolved due times is the cheapest walk; the timing
+ * wheel only touches what is due. JSON parsing is measured separately in
+ * IngestBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class DueScanBenchmark {
+    private static final long WINDOW_MS = 120000;
+    private static final long NOW = SyntheticReminders.NOW;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int count;
+
+    private JSONArray reminders;
+    private ReminderRecord[] records;
+    private TimingWheel wheel;
+    private int[] dueIds;
+    private long[] dueAt;
+
+    @Setup
+    public void setUp() {
+        String json = SyntheticReminders.json(count);
+        reminders = new JSONArray(json);
+        records = SyntheticReminders.records(json);
+        wheel = buildWheel(records);
+        dueIds = new int[count];
+        dueAt = new long[count];
+    }
+
+    @Benchmark
+    public int legacyScan() throws ParseException {
+        Set<Integer> triggeredReminders = new HashSet<>();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm", Locale.US);
+        dateFormat.setTimeZone(SyntheticReminders.ZONE);
+        timeFormat.setTimeZone(SyntheticReminders.ZONE);
+        Date now = new Date(NOW);
+        String currentDate = dateFormat.format(now);
+        String currentTime = timeFormat.format(now);
+
+        for (int i = 0; i < reminders.length(); i++) {
+            JSONObject reminder = reminders.getJSONObject(i);
+            if (reminder.getBoolean("isCompleted")) {
+                continue;
+            }
+            int reminderId = reminder.getInt("id");
+            if (triggeredReminders.contains(reminderId)) {
+                continue;
+            }
+            if (reminder.getString("date").equals(currentDate)) {
+                long timeDiff = timeFormat.parse(currentTime).getTime()
+                    - timeFormat.parse(reminder.getString("time")).getTime();
+                if (timeDiff >= 0 && timeDiff <= WINDOW_MS) {
+                    triggeredReminders.add(reminderId);
+                }
+            }
+        }
+        return triggeredReminders.size();
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int due = 0;
+        for (ReminderRecord record : records) {
+            if (record.isCompleted) {
+                continue;
+            }
+            long next = record.nextDueAt(NOW - WINDOW_MS);
+            if (next > 0 && next <= NOW && NOW - next <= WINDOW_MS) {
+                due++;
+            }
+        }
+        return due;
+    }
+
+    /** One check: collect what is due, then queue it again so every invocation sees the same wheel. */
+    @Benchmark
+    public int timingWheelPoll() {
+        int polled = wheel.pollDue(NOW, dueIds, dueAt);
+        for (int i = 0; i < polled; i++) {
+            wheel.add(dueIds[i], dueAt[i]);
+        }
+        return polled;
+    }
+
+    /** Rebuilding the wheel, as the scheduler does after a full sync. */
+    @Benchmark
+    public TimingWheel timingWheelBuild() {
+        return buildWheel(records);
+    }
+
+    private TimingWheel buildWheel(ReminderRecord[] records) {
+        TimingWheel wheel = new TimingWheel(NOW, records.length);
+        for (ReminderRecord record : records) {
+            if (record.isCompleted) {
+                continue;
+            }
+            long next = record.nextDueAt(NOW - WINDOW_MS);
+            if (next > 0 && NOW - next <= WINDOW_MS) {
+                wheel.add(record.id, next);
+            }
+        }
+        return wheel;
+    }
+}
@@ -0,0 +1,69 @@
+package com.timetuneai.app;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the "reminders" preference string. The legacy service parsed the
+ * whole array and read fields off each JSONObject on every check; the
+ * repository parses it once per sync into ReminderRecords with resolved due
+ * times, and streams a full sync through ReminderJsonReader so only one
+ * reminder's JSONObject is reachable at a time. Run with -prof gc to compare
+ * allocation per sync alongside the times.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IngestBenchmark {
+    @Param({"100", "1000", "10000", "100000"})
+    public int count;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        json = SyntheticReminders.json(count);
+    }
+
+    @Benchmark
+    public void legacyJsonArray(Blackhole blackhole) {
+        JSONArray reminders = new JSONArray(json);
+        for (int i = 0; i < reminders.length(); i++) {
+            JSONObject reminder = reminders.getJSONObject(i);
+            blackhole.consume(reminder.getBoolean("isCompleted"));
+            blackhole.consume(reminder.getInt("id"));
+            blackhole.consume(reminder.getString("date"));
+            blackhole.consume(reminder.getString("time"));
+            blackhole.consume(reminder.getString("title"));
+        }
+    }
+
+    @Benchmark
+    public ReminderRecord[] reminderRecords() {
+        return SyntheticReminders.records(json);
+    }
+
+    @Benchmark
+    public int pullReader(final Blackhole blackhole) throws IOException {
+        return ReminderJsonReader.read(json,
+            reminder -> blackhole.consume(ReminderRecord.fromJson(reminder, SyntheticReminders.ZONE)));
+    }
+}
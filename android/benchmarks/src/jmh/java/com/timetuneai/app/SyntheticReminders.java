@@ -0,0 +1,78 @@
+package com.timetuneai.app;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Reproducible reminder sets shaped like the "reminders" JSON that the JS
+ * RemindersContext writes to preferences. Reminders are spread from a week
+ * before to a month after {@link #NOW}; about one in ten is completed, one
+ * in ten recurs, and one in a hundred falls inside the two-minute window the
+ * legacy check treats as due.
+ */
+final class SyntheticReminders {
+    static final TimeZone ZONE = TimeZone.getTimeZone("UTC");
+    static final String TODAY = "2025-06-02";
+    static final String NOW_TIME = "12:00";
+    static final long NOW = DueTimes.toEpochMillis(TODAY, NOW_TIME, ZONE);
+
+    private static final String[] CATEGORIES = {"personal", "work", "health", "other"};
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+    private static final String[] PATTERNS = {"daily", "weekly", "weekdays", "monthly"};
+
+    private SyntheticReminders() {}
+
+    static String json(int count) {
+        Random random = new Random(count);
+        JSONArray reminders = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            long dueAt;
+            if (random.nextInt(100) == 0) {
+                dueAt = NOW - random.nextInt(120) * 1000L;
+            } else {
+                dueAt = NOW + (random.nextInt(37 * 24 * 60) - 7 * 24 * 60) * DueTimes.MINUTE_MS;
+            }
+            dueAt -= dueAt % DueTimes.MINUTE_MS;
+
+            JSONObject reminder = new JSONObject();
+            reminder.put("id", 1000 + i);
+            reminder.put("title", "Reminder " + i);
+            reminder.put("description", "Synthetic reminder number " + i + " for benchmarking");
+            reminder.put("date", date(dueAt));
+            reminder.put("time", time(dueAt));
+            reminder.put("category", CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            reminder.put("priority", PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            reminder.put("isCompleted", random.nextInt(10) == 0);
+            boolean recurring = random.nextInt(10) == 0;
+            reminder.put("isRecurring", recurring);
+            if (recurring) {
+                reminder.put("recurrencePattern", PATTERNS[random.nextInt(PATTERNS.length)]);
+            }
+            reminder.put("createdAt", "2025-05-01T09:30:00.000Z");
+            reminders.put(reminder);
+        }
+        return reminders.toString();
+    }
+
+    static ReminderRecord[] records(String json) {
+        JSONArray reminders = new JSONArray(json);
+        ReminderRecord[] records = new ReminderRecord[reminders.length()];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = ReminderRecord.fromJson(reminders.getJSONObject(i), ZONE);
+        }
+        return records;
+    }
+
+    private static String date(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC).toLocalDate().toString();
+    }
+
+    private static String time(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC).toLocalTime().toString();
+    }
+}
@@ -0,0 +1,86 @@
+package com.timetuneai.app;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "already rang?" check made for every pending reminder on a check.
+ * The legacy service kept a HashSet of boxed ids, cleared once it passed 50
+ * entries; TriggerLog keys on (id, due time) in a mapped file. Both hold 50
+ * entries, the most the legacy set ever did.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TriggeredLookupBenchmark {
+    private static final int TRIGGERED = 50;
+    private static final long NOW = SyntheticReminders.NOW;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int count;
+
+    private ReminderRecord[] records;
+    private Set<Integer> triggeredReminders;
+    private File logFile;
+    private TriggerLog triggerLog;
+
+    @Setup
+    public void setUp() throws IOException {
+        records = SyntheticReminders.records(SyntheticReminders.json(count));
+        triggeredReminders = new HashSet<>();
+        logFile = File.createTempFile("trigger-log", ".bin");
+        logFile.delete();
+        triggerLog = new TriggerLog(logFile, 60 * DueTimes.DAY_MS);
+        for (int i = 0; i < Math.min(TRIGGERED, records.length); i++) {
+            triggeredReminders.add(records[i].id);
+            triggerLog.record(records[i].id, records[i].dueAt, NOW);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        triggerLog.close();
+        logFile.delete();
+    }
+
+    @Benchmark
+    public int legacyHashSet() {
+        int hits = 0;
+        for (ReminderRecord record : records) {
+            if (triggeredReminders.contains(record.id)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int triggerLog() {
+        int hits = 0;
+        for (ReminderRecord record : records) {
+            if (triggerLog.contains(record.id, record.dueAt, NOW)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
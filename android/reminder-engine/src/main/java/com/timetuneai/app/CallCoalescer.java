@@ -0,0 +1,90 @@
+package com.timetuneai.app;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups due calls into call sessions and limits how often sessions start.
+ * Everything queued since the last session goes into the next one, so a
+ * burst of reminders due together (a busy minute, or a bulk import whose
+ * reminders are already due) rings once with all of them instead of once
+ * per reminder. The caller can hold the queued session until a ready time,
+ * as when another reminder comes due a few seconds later and should ring
+ * with it; an unheld session starts at once. At most {@code maxLaunches}
+ * sessions start in any RATE_WINDOW_MS; calls queued while the limit is
+ * reached wait for the next free slot and join that session.
+ *
+ * Times are passed in by the caller on a monotonic clock. Not thread-safe;
+ * CallDeliveryPipeline uses it from its own thread.
+ */
+public class CallCoalescer<T> {
+    public static final long RATE_WINDOW_MS = 60000;
+
+    private final List<T> queued = new ArrayList<>();
+    // When the queued session may start
+    private long readyAt = Long.MIN_VALUE;
+    // Start times of the most recent sessions, oldest at launchHead
+    private final long[] launches;
+    private int launchHead;
+    private int launchCount;
+
+    public CallCoalescer(int maxLaunches) {
+        launches = new long[maxLaunches];
+    }
+
+    /** Queues a call for the next session. */
+    public void add(T call) {
+        queued.add(call);
+    }
+
+    /**
+     * Keeps the queued session from starting before {@code readyAt},
+     * replacing any earlier hold; Long.MIN_VALUE releases it.
+     */
+    public void holdUntil(long readyAt) {
+        this.readyAt = readyAt;
+    }
+
+    public int queuedCount() {
+        return queued.size();
+    }
+
+    /**
+     * Starts a session at {@code now} if anything is queued, the session is
+     * not held and the rate limit allows: moves every queued
+     * call into {@code out} and returns 0. Otherwise returns the
+     * milliseconds until a session may start, or -1 when nothing is queued.
+     */
+    public long drain(long now, List<T> out) {
+        if (queued.isEmpty()) {
+            return -1;
+        }
+        long wait = Math.max(readyAt > now ? readyAt - now : 0, waitForSlot(now));
+        if (wait > 0) {
+            return wait;
+        }
+        out.addAll(queued);
+        queued.clear();
+        readyAt = Long.MIN_VALUE;
+        recordLaunch(now);
+        return 0;
+    }
+
+    private long waitForSlot(long now) {
+        if (launchCount < launches.length) {
+            return 0;
+        }
+        return Math.max(0, launches[launchHead] + RATE_WINDOW_MS - now);
+    }
+
+    private void recordLaunch(long now) {
+        if (launchCount < launches.length) {
+            launches[(launchHead + launchCount) % launches.length] = now;
+            launchCount++;
+        } else {
+            // Full: the oldest launch makes way
+            launches[launchHead] = now;
+            launchHead = (launchHead + 1) % launches.length;
+        }
+    }
+}
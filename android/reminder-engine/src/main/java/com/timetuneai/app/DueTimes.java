@@ -0,0 +1,145 @@
+package com.timetuneai.app;
+
+import java.util.TimeZone;
+
+/**
+ * Turns the "yyyy-MM-dd" date and "HH:mm" time strings the JS layer stores
+ * into epoch millis. Parsing is done by hand on the characters, so resolving
+ * a reminder's due time allocates nothing and never goes through
+ * SimpleDateFormat.
+ */
+public final class DueTimes {
+    public static final long MINUTE_MS = 60 * 1000L;
+    public static final long HOUR_MS = 60 * MINUTE_MS;
+    public static final long DAY_MS = 24 * HOUR_MS;
+
+    private DueTimes() {
+    }
+
+    /**
+     * Returns the instant the given local date and time fall on in
+     * {@code zone}, or -1 when either string is malformed. Seconds in
+     * "HH:mm:ss" are accepted and honoured.
+     */
+    public static long toEpochMillis(String date, String time, TimeZone zone) {
+        if (date == null || time == null || date.length() != 10 || (time.length() != 5 && time.length() != 8)) {
+            return -1;
+        }
+        if (date.charAt(4) != '-' || date.charAt(7) != '-' || time.charAt(2) != ':') {
+            return -1;
+        }
+
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 2);
+        int day = digits(date, 8, 2);
+        int hour = digits(time, 0, 2);
+        int minute = digits(time, 3, 2);
+        int second = 0;
+        if (time.length() == 8) {
+            second = time.charAt(5) == ':' ? digits(time, 6, 2) : -1;
+        }
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return -1;
+        }
+
+        long local = epochDay(year, month, day) * DAY_MS + hour * HOUR_MS + minute * MINUTE_MS + second * 1000L;
+        return toUtc(local, zone);
+    }
+
+    /** Epoch day of a "yyyy-MM-dd" date, or Long.MIN_VALUE when malformed. */
+    public static long toEpochDay(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 2);
+        int day = digits(date, 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+        return epochDay(year, month, day);
+    }
+
+    /** Converts a local wall-clock instant to UTC, resolving DST transitions like Calendar does. */
+    public static long toUtc(long localMillis, TimeZone zone) {
+        long guess = localMillis - zone.getOffset(localMillis);
+        return localMillis - zone.getOffset(guess);
+    }
+
+    /** Days since 1970-01-01 for a proleptic Gregorian date. */
+    public static long epochDay(int year, int month, int day) {
+        // Howard Hinnant's days_from_civil
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /** Day of week of an epoch day, Monday = 0 through Sunday = 6. */
+    public static int dayOfWeek(long epochDay) {
+        // 1970-01-01 was a Thursday
+        return (int) Math.floorMod(epochDay + 3, 7L);
+    }
+
+    /** Months since year 0 (year * 12 + month - 1) of an epoch day. */
+    public static long monthIndex(long epochDay) {
+        long civil = toCivil(epochDay);
+        return (civil >> 9) * 12 + ((civil >> 5) & 15) - 1;
+    }
+
+    public static int dayOfMonth(long epochDay) {
+        return (int) (toCivil(epochDay) & 31);
+    }
+
+    /** Epoch day of the given day in a month index, clamped to the month's length. */
+    public static long dayInMonth(long monthIndex, int dayOfMonth) {
+        int year = (int) Math.floorDiv(monthIndex, 12L);
+        int month = (int) Math.floorMod(monthIndex, 12L) + 1;
+        return epochDay(year, month, Math.min(dayOfMonth, daysInMonth(year, month)));
+    }
+
+    // Howard Hinnant's civil_from_days, packed as year << 9 | month << 5 | day
+    private static long toCivil(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    public static int daysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static int digits(String value, int start, int count) {
+        int result = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.timetuneai.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The part of ReminderEngine's state worth keeping across a restart: when
+ * the last check ran, the earliest pending due time after it, and the
+ * storage generation that due time was taken against. A restarted engine
+ * whose storage is still at that generation can arm its wake-up from the
+ * snapshot right away and build its index later.
+ *
+ * Everything due at or before the last check was handled by that check, so
+ * the check instant is also de-duplication state: unlike TriggerLog it is a
+ * single value and cannot overflow, however many occurrences rang.
+ *
+ * Held in a small memory-mapped file, so saving after every check or
+ * change is a few stores into the page cache and survives the process being
+ * killed. Not thread-safe; ReminderEngine uses it from its host thread.
+ */
+public class EngineSnapshot {
+    private static final int MAGIC = 0x54544553; // "TTES"
+    private static final int FORMAT_VERSION = 1;
+
+    // Layout; a generation of -1 marks a snapshot that must not be resumed from
+    private static final int SIZE = 32;
+    private static final int H_MAGIC = 0;
+    private static final int H_FORMAT = 4;
+    private static final int H_LAST_CHECK_AT = 8;
+    private static final int H_HEAD_DUE_AT = 16;
+    private static final int H_GENERATION = 24;
+
+    private final RandomAccessFile file;
+    private final MappedByteBuffer data;
+
+    public EngineSnapshot(File path) throws IOException {
+        boolean created = !path.exists() || path.length() != SIZE;
+        file = new RandomAccessFile(path, "rw");
+        data = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+
+        if (created || data.getInt(H_MAGIC) != MAGIC || data.getInt(H_FORMAT) != FORMAT_VERSION) {
+            data.putLong(H_GENERATION, -1);
+            data.putLong(H_LAST_CHECK_AT, -1);
+            data.putLong(H_HEAD_DUE_AT, -1);
+            data.putInt(H_MAGIC, MAGIC);
+            data.putInt(H_FORMAT, FORMAT_VERSION);
+        }
+    }
+
+    /** When the last check ran, or -1 before the first one. */
+    public long lastCheckAt() {
+        return data.getLong(H_LAST_CHECK_AT);
+    }
+
+    /** Earliest pending due time as of the last save, or -1 when nothing was pending. */
+    public long headDueAt() {
+        return data.getLong(H_HEAD_DUE_AT);
+    }
+
+    /** Storage generation the head was taken against, or -1 when it is unusable. */
+    public long generation() {
+        return data.getLong(H_GENERATION);
+    }
+
+    public void save(long lastCheckAt, long headDueAt, long generation) {
+        // Invalid while half written, in case the process dies in between
+        data.putLong(H_GENERATION, -1);
+        data.putLong(H_LAST_CHECK_AT, lastCheckAt);
+        data.putLong(H_HEAD_DUE_AT, headDueAt);
+        data.putLong(H_GENERATION, generation);
+    }
+
+    public void close() throws IOException {
+        data.force();
+        file.close();
+    }
+}
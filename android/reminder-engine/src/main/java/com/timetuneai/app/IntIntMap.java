@@ -0,0 +1,124 @@
+package com.timetuneai.app;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from int to int with linear probing. Keys and values
+ * are stored in primitive arrays, so lookups and updates never box.
+ */
+public class IntIntMap {
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    public IntIntMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public int get(int key, int missingValue) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : missingValue;
+    }
+
+    public void put(int key, int value) {
+        int index = slot(key);
+        while (used[index]) {
+            if (keys[index] == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        used[index] = true;
+        keys[index] = key;
+        values[index] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    public int remove(int key, int missingValue) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return missingValue;
+        }
+        int removed = values[index];
+        used[index] = false;
+        size--;
+
+        // Shift later entries of the probe run back so lookups keep finding them
+        int next = (index + 1) & mask;
+        while (used[next]) {
+            int home = slot(keys[next]);
+            boolean movable = next > index ? (home <= index || home > next) : (home <= index && home > next);
+            if (movable) {
+                keys[index] = keys[next];
+                values[index] = values[next];
+                used[index] = true;
+                used[next] = false;
+                index = next;
+            }
+            next = (next + 1) & mask;
+        }
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int indexOf(int key) {
+        int index = slot(key);
+        while (used[index]) {
+            if (keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
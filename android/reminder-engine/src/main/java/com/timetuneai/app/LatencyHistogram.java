@@ -0,0 +1,130 @@
+package com.timetuneai.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Persisted latency histograms, one per (delivery strategy, trace stage).
+ * Each histogram counts samples in power-of-two millisecond buckets and
+ * keeps the largest sample, so percentiles survive restarts while the file
+ * stays a fixed size whatever the sample count.
+ *
+ * Held in a memory-mapped file like TriggerLog: every record lands in the
+ * page cache immediately, and an unreadable or differently shaped file is
+ * reset to empty. Not thread-safe; LatencyTracer synchronizes access.
+ */
+public class LatencyHistogram {
+    private static final int MAGIC = 0x5454484c; // "TTHL"
+    private static final int FORMAT_VERSION = 1;
+
+    // Bucket b counts latencies in [2^(b-1), 2^b) ms, bucket 0 counts 0ms;
+    // the last bucket also takes everything beyond it
+    public static final int BUCKETS = 28;
+
+    // Header layout
+    private static final int HEADER_SIZE = 24;
+    private static final int H_MAGIC = 0;
+    private static final int H_FORMAT = 4;
+    private static final int H_STRATEGIES = 8;
+    private static final int H_STAGES = 12;
+    private static final int H_BUCKETS = 16;
+
+    // Cell layout: max, count, then the bucket counts
+    private static final int C_MAX = 0;
+    private static final int C_COUNT = 8;
+    private static final int C_BUCKETS = 16;
+    private static final int CELL_SIZE = C_BUCKETS + BUCKETS * 8;
+
+    private final int strategies;
+    private final int stages;
+    private final RandomAccessFile file;
+    private final MappedByteBuffer table;
+
+    public LatencyHistogram(File path, int strategies, int stages) throws IOException {
+        this.strategies = strategies;
+        this.stages = stages;
+        long size = HEADER_SIZE + (long) strategies * stages * CELL_SIZE;
+        boolean created = !path.exists() || path.length() != size;
+        file = new RandomAccessFile(path, "rw");
+        table = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        if (created || table.getInt(H_MAGIC) != MAGIC || table.getInt(H_FORMAT) != FORMAT_VERSION
+                || table.getInt(H_STRATEGIES) != strategies || table.getInt(H_STAGES) != stages
+                || table.getInt(H_BUCKETS) != BUCKETS) {
+            zeroCells();
+            table.putInt(H_MAGIC, MAGIC);
+            table.putInt(H_FORMAT, FORMAT_VERSION);
+            table.putInt(H_STRATEGIES, strategies);
+            table.putInt(H_STAGES, stages);
+            table.putInt(H_BUCKETS, BUCKETS);
+        }
+    }
+
+    /** Adds one sample; negative latencies count as 0ms. */
+    public void record(int strategy, int stage, long latencyMs) {
+        if (latencyMs < 0) {
+            latencyMs = 0;
+        }
+        int cell = cellOffset(strategy, stage);
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(latencyMs), BUCKETS - 1);
+        int bucketOffset = cell + C_BUCKETS + bucket * 8;
+        table.putLong(bucketOffset, table.getLong(bucketOffset) + 1);
+        table.putLong(cell + C_COUNT, table.getLong(cell + C_COUNT) + 1);
+        if (latencyMs > table.getLong(cell + C_MAX)) {
+            table.putLong(cell + C_MAX, latencyMs);
+        }
+    }
+
+    public long count(int strategy, int stage) {
+        return table.getLong(cellOffset(strategy, stage) + C_COUNT);
+    }
+
+    public long max(int strategy, int stage) {
+        return table.getLong(cellOffset(strategy, stage) + C_MAX);
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile (0..1), capped at
+     * the largest sample; 0 when nothing was recorded.
+     */
+    public long percentile(int strategy, int stage, double quantile) {
+        int cell = cellOffset(strategy, stage);
+        long count = table.getLong(cell + C_COUNT);
+        if (count == 0) {
+            return 0;
+        }
+        long max = table.getLong(cell + C_MAX);
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS - 1; b++) {
+            seen += table.getLong(cell + C_BUCKETS + b * 8);
+            if (seen >= rank) {
+                return Math.min(b == 0 ? 0 : (1L << b) - 1, max);
+            }
+        }
+        return max;
+    }
+
+    public void clear() {
+        zeroCells();
+    }
+
+    public void close() throws IOException {
+        table.force();
+        file.close();
+    }
+
+    // Private so the constructor does not call an overridable method
+    private void zeroCells() {
+        for (int offset = HEADER_SIZE; offset < table.capacity(); offset += 8) {
+            table.putLong(offset, 0);
+        }
+    }
+
+    private int cellOffset(int strategy, int stage) {
+        return HEADER_SIZE + (strategy * stages + stage) * CELL_SIZE;
+    }
+}
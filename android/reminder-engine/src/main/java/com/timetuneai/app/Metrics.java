@@ -0,0 +1,166 @@
+package com.timetuneai.app;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide counters and histograms for the reminder service, read by the
+ * Settings page through {@code AndroidReminders.getMetrics()}.
+ *
+ * Cheap enough to leave on: metrics are fixed int ids, counters are slots in
+ * an AtomicLongArray, and histograms keep power-of-two buckets, so recording
+ * is a few atomic adds with no allocation or locking. Percentiles are read
+ * back as the upper bound of the bucket they fall in.
+ */
+public final class Metrics {
+    // Counters
+    public static final int CHECKS = 0;
+    public static final int REMINDERS_SCANNED = 1;
+    public static final int REMINDERS_MISSED = 2;
+    public static final int DELIVERIES_ACTIVITY = 3;
+    public static final int DELIVERIES_OVERLAY = 4;
+    public static final int DELIVERIES_NOTIFICATION = 5;
+    public static final int FAILURES = 6;
+    // Reminders that rang as part of another reminder's call session
+    public static final int CALLS_COALESCED = 7;
+    // Calls that rang from an intent and notification built during the pre-roll
+    public static final int CALLS_PREPARED = 8;
+    // Time ReminderBackgroundService spent in the foreground, and stopped in low-power mode
+    public static final int SERVICE_FOREGROUND_MS = 9;
+    public static final int SERVICE_IDLE_MS = 10;
+    private static final String[] COUNTER_NAMES = {
+        "checks", "remindersScanned", "remindersMissed",
+        "deliveriesActivity", "deliveriesOverlay", "deliveriesNotification", "failures",
+        "callsCoalesced", "callsPrepared", "serviceForegroundMs", "serviceIdleMs"
+    };
+
+    // Histograms
+    public static final int CHECK_CPU_US = 0;
+    public static final int PARSE_US = 1;
+    public static final int WAKE_LOCK_INGEST_MS = 2;
+    public static final int WAKE_LOCK_CHECK_MS = 3;
+    public static final int WAKE_LOCK_PREROLL_MS = 4;
+    public static final int WAKE_LOCK_DISPATCH_MS = 5;
+    public static final int DELIVERY_MS = 6;
+    private static final String[] HISTOGRAM_NAMES = {
+        "checkCpuUs", "parseUs", "wakeLockIngestMs", "wakeLockCheckMs",
+        "wakeLockPrerollMs", "wakeLockDispatchMs", "deliveryMs"
+    };
+
+    // Bucket b counts values in [2^(b-1), 2^b), bucket 0 counts zeros
+    private static final int BUCKETS = 64;
+    // Per histogram: count, sum, max, then the buckets
+    private static final int H_COUNT = 0;
+    private static final int H_SUM = 1;
+    private static final int H_MAX = 2;
+    private static final int H_BUCKETS = 3;
+    private static final int H_STRIDE = H_BUCKETS + BUCKETS;
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    private final AtomicLongArray counters = new AtomicLongArray(COUNTER_NAMES.length);
+    private final AtomicLongArray histograms = new AtomicLongArray(HISTOGRAM_NAMES.length * H_STRIDE);
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    Metrics() {
+    }
+
+    public void increment(int counter) {
+        counters.incrementAndGet(counter);
+    }
+
+    public void add(int counter, long delta) {
+        counters.addAndGet(counter, delta);
+    }
+
+    public long counter(int counter) {
+        return counters.get(counter);
+    }
+
+    /** Records one non-negative sample; negative values are clamped to zero. */
+    public void record(int histogram, long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        int base = histogram * H_STRIDE;
+        histograms.incrementAndGet(base + H_COUNT);
+        histograms.addAndGet(base + H_SUM, value);
+        histograms.incrementAndGet(base + H_BUCKETS + bucket(value));
+        long max;
+        do {
+            max = histograms.get(base + H_MAX);
+        } while (value > max && !histograms.compareAndSet(base + H_MAX, max, value));
+    }
+
+    public long count(int histogram) {
+        return histograms.get(histogram * H_STRIDE + H_COUNT);
+    }
+
+    public long max(int histogram) {
+        return histograms.get(histogram * H_STRIDE + H_MAX);
+    }
+
+    /**
+     * Upper bound of the bucket holding the given quantile (0..1), capped at
+     * the largest recorded value; 0 when nothing was recorded.
+     */
+    public long percentile(int histogram, double quantile) {
+        int base = histogram * H_STRIDE;
+        long count = histograms.get(base + H_COUNT);
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histograms.get(base + H_BUCKETS + b);
+            if (seen >= rank) {
+                return Math.min(upperBound(b), histograms.get(base + H_MAX));
+            }
+        }
+        return histograms.get(base + H_MAX);
+    }
+
+    /**
+     * JSON snapshot: {"counters": {name: value}, "histograms": {name:
+     * {count, sum, max, p50, p90, p99}}}. Concurrent updates may land between
+     * fields, which is fine for display.
+     */
+    public String snapshotJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"counters\":{");
+        for (int c = 0; c < COUNTER_NAMES.length; c++) {
+            if (c > 0) {
+                json.append(',');
+            }
+            json.append('"').append(COUNTER_NAMES[c]).append("\":").append(counters.get(c));
+        }
+        json.append("},\"histograms\":{");
+        for (int h = 0; h < HISTOGRAM_NAMES.length; h++) {
+            int base = h * H_STRIDE;
+            if (h > 0) {
+                json.append(',');
+            }
+            json.append('"').append(HISTOGRAM_NAMES[h]).append("\":{")
+                .append("\"count\":").append(histograms.get(base + H_COUNT))
+                .append(",\"sum\":").append(histograms.get(base + H_SUM))
+                .append(",\"max\":").append(histograms.get(base + H_MAX))
+                .append(",\"p50\":").append(percentile(h, 0.5))
+                .append(",\"p90\":").append(percentile(h, 0.9))
+                .append(",\"p99\":").append(percentile(h, 0.99))
+                .append('}');
+        }
+        json.append("}}");
+        return json.toString();
+    }
+
+    private static int bucket(long value) {
+        return 64 - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long upperBound(int bucket) {
+        return bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,141 @@
+package com.timetuneai.app;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.TimeZone;
+
+/**
+ * Recurrence of a reminder, read from its isRecurring / recurrencePattern
+ * fields. Occurrences are computed on demand from the first one, so a
+ * recurring reminder is a single stored row however long it runs.
+ *
+ * Supported patterns are "daily", "weekly", "weekdays" (Monday to Friday)
+ * and "monthly" (same day of month, clamped to shorter months). Optional
+ * fields: recurrenceEndDate ("yyyy-MM-dd", inclusive) and
+ * recurrenceExceptions (array of "yyyy-MM-dd" dates to skip).
+ */
+public class RecurrenceRule {
+    public static final int DAILY = 0;
+    public static final int WEEKLY = 1;
+    public static final int WEEKDAYS = 2;
+    public static final int MONTHLY = 3;
+
+    private final int pattern;
+    private final long firstDay;
+    private final int dayOfMonth;
+    private final long minuteOfDay;
+    private final long endDay;
+    // Sorted epoch days that are skipped
+    private final long[] exceptions;
+    private final TimeZone zone;
+
+    RecurrenceRule(int pattern, long firstDay, long minuteOfDay, long endDay, long[] exceptions, TimeZone zone) {
+        this.pattern = pattern;
+        this.firstDay = firstDay;
+        this.dayOfMonth = DueTimes.dayOfMonth(firstDay);
+        this.minuteOfDay = minuteOfDay;
+        this.endDay = endDay;
+        this.exceptions = exceptions;
+        this.zone = zone;
+    }
+
+    /**
+     * Returns the rule for a reminder, or null when it does not recur or its
+     * first occurrence cannot be resolved.
+     */
+    public static RecurrenceRule fromJson(JSONObject reminder, long firstDueAt, TimeZone zone) {
+        if (!reminder.optBoolean("isRecurring", false)) {
+            return null;
+        }
+        int pattern = patternCode(reminder.optString("recurrencePattern", ""));
+        if (pattern < 0 || firstDueAt <= 0) {
+            return null;
+        }
+
+        long local = firstDueAt + zone.getOffset(firstDueAt);
+        long firstDay = Math.floorDiv(local, DueTimes.DAY_MS);
+        long minuteOfDay = Math.floorMod(local, DueTimes.DAY_MS) / DueTimes.MINUTE_MS;
+
+        long endDay = Long.MAX_VALUE;
+        String endDate = reminder.optString("recurrenceEndDate", "");
+        if (!endDate.isEmpty()) {
+            long parsed = DueTimes.toEpochDay(endDate);
+            if (parsed != Long.MIN_VALUE) {
+                endDay = parsed;
+            }
+        }
+
+        JSONArray skipped = reminder.optJSONArray("recurrenceExceptions");
+        long[] exceptions = new long[skipped != null ? skipped.length() : 0];
+        int count = 0;
+        for (int i = 0; i < exceptions.length; i++) {
+            long day = DueTimes.toEpochDay(skipped.optString(i, ""));
+            if (day != Long.MIN_VALUE) {
+                exceptions[count++] = day;
+            }
+        }
+        exceptions = Arrays.copyOf(exceptions, count);
+        Arrays.sort(exceptions);
+
+        return new RecurrenceRule(pattern, firstDay, minuteOfDay, endDay, exceptions, zone);
+    }
+
+    /** Maps a recurrencePattern string to its code, or -1 when unknown. */
+    public static int patternCode(String pattern) {
+        switch (pattern) {
+            case "daily":
+                return DAILY;
+            case "weekly":
+                return WEEKLY;
+            case "weekdays":
+                return WEEKDAYS;
+            case "monthly":
+                return MONTHLY;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Returns the first occurrence at or after {@code from}, or -1 once the
+     * series has ended. Jumps straight to the candidate day, so the cost does
+     * not depend on how long ago the series started; only skipped dates are
+     * stepped over.
+     */
+    public long nextOccurrence(long from) {
+        long local = from + zone.getOffset(from);
+        long day = Math.max(firstDay, Math.floorDiv(local, DueTimes.DAY_MS));
+        day = onOrAfter(day);
+
+        // Bounded by the number of exceptions plus one extra step for the time of day
+        for (int guard = 0; guard <= exceptions.length + 1 && day <= endDay; guard++) {
+            if (Arrays.binarySearch(exceptions, day) < 0) {
+                long occurrence = DueTimes.toUtc(day * DueTimes.DAY_MS + minuteOfDay * DueTimes.MINUTE_MS, zone);
+                if (occurrence >= from) {
+                    return occurrence;
+                }
+            }
+            day = onOrAfter(day + 1);
+        }
+        return -1;
+    }
+
+    // First day of the pattern on or after the given epoch day
+    private long onOrAfter(long day) {
+        switch (pattern) {
+            case WEEKLY:
+                return day + Math.floorMod(firstDay - day, 7L);
+            case WEEKDAYS:
+                int dayOfWeek = DueTimes.dayOfWeek(day);
+                return dayOfWeek >= 5 ? day + (7 - dayOfWeek) : day;
+            case MONTHLY:
+                long month = DueTimes.monthIndex(day);
+                long candidate = DueTimes.dayInMonth(month, dayOfMonth);
+                return candidate >= day ? candidate : DueTimes.dayInMonth(month + 1, dayOfMonth);
+            default:
+                return day;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.timetuneai.app;
+
+/**
+ * Reminder scheduling without any Android dependency: ingest from storage,
+ * indexing by due time, due detection and de-duplication. The host supplies
+ * the clock, the storage and the sink calls are delivered to, so the same
+ * logic runs in ReminderBackgroundService and on a plain JVM under a
+ * virtual clock.
+ *
+ * Pending reminders sit in a TimingWheel; a check drains everything due,
+ * queues the next occurrence of recurring reminders, drops occurrences past
+ * TRIGGER_WINDOW_MS as missed and skips those the TriggerLog says already
+ * rang. Waking the host when the next reminder is due is left to the host.
+ *
+ * With an EngineSnapshot, every check and change saves the check instant
+ * and the head of the queue. A restarted host can {@link #resume} from it
+ * in constant time: the wake-up is armed from the saved head and the index
+ * is only rebuilt once the engine is next used. Occurrences due at or
+ * before the saved check instant are not handed out again as long as
+ * storage is unchanged since; after a write the engine cannot tell which
+ * of them that check saw, and leaves de-duplicating them to the TriggerLog.
+ *
+ * Not thread-safe; the host calls it from a single thread.
+ */
+public class ReminderEngine {
+    // Reminders found more than this far past their due time are treated as missed
+    public static final long TRIGGER_WINDOW_MS = 120000;
+    // How long before a due time the pre-roll stage starts
+    public static final long PREROLL_LEAD_MS = 5000;
+
+    public interface Clock {
+        long now();
+    }
+
+    /** Where reminders are read from; ReminderRepository on a device. */
+    public interface Storage {
+        /** Visits id, next due time and flags of every stored reminder. */
+        void forEachRecord(ReminderStore.RecordVisitor visitor);
+
+        /**
+         * Moves a recurring reminder past an occurrence that has fired or was
+         * missed; returns its next due time, or -1 when it does not recur.
+         */
+        long advanceRecurrence(int reminderId, long pastDueAt, long now);
+
+        ReminderRecord find(int reminderId);
+
+        /** Goes up by one with every write to a stored reminder. */
+        long generation();
+    }
+
+    /** Receives the outcome of each due occurrence. */
+    public interface Sink {
+        void deliver(ReminderRecord reminder, long dueAt, long detectedAt);
+
+        void onMissed(int reminderId, long dueAt, long now);
+    }
+
+    private final Clock clock;
+    private final Storage storage;
+    private final Sink sink;
+    private final TriggerLog triggerLog;
+    private final EngineSnapshot snapshot;
+    private final Metrics metrics;
+    private final TimingWheel wheel;
+    // False after resume() until the index is rebuilt
+    private boolean loaded = true;
+    // Earliest pending due time, taken from the wheel whenever it changes, or from the snapshot
+    private long headDueAt = -1;
+    // Everything due at or before this was handled by a check
+    private long lastCheckAt = -1;
+    // Storage generation the index reflects
+    private long generation = -1;
+    // Reused for every check so draining the wheel does not allocate
+    private final int[] dueIds = new int[16];
+    private final long[] dueTimes = new long[16];
+
+    /** {@code triggerLog} may be null, in which case occurrences are not de-duplicated across checks. */
+    public ReminderEngine(Clock clock, Storage storage, Sink sink, TriggerLog triggerLog, Metrics metrics) {
+        this(clock, storage, sink, triggerLog, null, metrics);
+    }
+
+    /** {@code triggerLog} and {@code snapshot} may be null. */
+    public ReminderEngine(Clock clock, Storage storage, Sink sink, TriggerLog triggerLog,
+            EngineSnapshot snapshot, Metrics metrics) {
+        this.clock = clock;
+        this.storage = storage;
+        this.sink = sink;
+        this.triggerLog = triggerLog;
+        this.snapshot = snapshot;
+        this.metrics = metrics;
+        this.wheel = new TimingWheel(clock.now(), 64);
+    }
+
+    public long now() {
+        return clock.now();
+    }
+
+    /**
+     * Picks up where the snapshot left off, in constant time, when it was
+     * saved against storage as it is now. The saved head stands in for
+     * {@link #nextDueAt} until the index is rebuilt, which happens the next
+     * time anything else is asked of the engine. Returns false, changing
+     * nothing, when there is no usable snapshot; call {@link #reload} then.
+     */
+    public boolean resume() {
+        if (snapshot == null) {
+            return false;
+        }
+        long savedGeneration = snapshot.generation();
+        long savedCheckAt = snapshot.lastCheckAt();
+        // A clock set back past the last check would make its instant skip new occurrences
+        if (savedGeneration < 0 || savedGeneration != storage.generation() || savedCheckAt > clock.now()) {
+            return false;
+        }
+        lastCheckAt = savedCheckAt;
+        headDueAt = snapshot.headDueAt();
+        generation = savedGeneration;
+        loaded = false;
+        return true;
+    }
+
+    /** Rebuilds the index from storage. Returns the number of pending reminders. */
+    public int reload() {
+        return reload(-1);
+    }
+
+    // pendingGeneration is that of a single write the caller applies itself right after, or -1
+    private int reload(long pendingGeneration) {
+        final long now = clock.now();
+        if (lastCheckAt < 0 && snapshot != null && snapshot.lastCheckAt() <= now) {
+            lastCheckAt = snapshot.lastCheckAt();
+            generation = snapshot.generation();
+        }
+        // Read before scanning, so any write it counts is in the scan
+        long current = storage.generation();
+        // A reminder written since the last check may be due before it and was never seen by it
+        final boolean checkedAll = generation >= 0
+            && (generation == current || generation + 1 == current && pendingGeneration == current);
+        generation = current;
+        wheel.clear();
+        loaded = true;
+        // Only the fixed-width index is read here; titles stay on disk until a reminder fires
+        storage.forEachRecord((id, dueAt, flags) -> {
+            metrics.increment(Metrics.REMINDERS_SCANNED);
+            if (checkedAll && (flags & ReminderStore.FLAG_COMPLETED) == 0 && dueAt > 0 && dueAt <= lastCheckAt) {
+                // Already handled by an earlier check, possibly before a restart
+                if ((flags & ReminderStore.FLAG_RECURRING) == 0) {
+                    return;
+                }
+                dueAt = storage.advanceRecurrence(id, dueAt, now);
+            }
+            add(id, pendingDueAt(storage, id, dueAt, flags, now), now);
+        });
+        save();
+        return wheel.size();
+    }
+
+    /**
+     * Earliest pending due time in storage, or -1 when nothing is pending,
+     * found in one pass over the index without building one. For hosts that
+     * only need to arm a wake-up, such as BootReceiver.
+     */
+    public static long nextDueAt(final Storage storage, final long now) {
+        final long[] earliest = {Long.MAX_VALUE};
+        storage.forEachRecord((id, dueAt, flags) -> {
+            long pending = pendingDueAt(storage, id, dueAt, flags, now);
+            if (pending > 0) {
+                earliest[0] = Math.min(earliest[0], pending);
+            }
+        });
+        return earliest[0] != Long.MAX_VALUE ? earliest[0] : -1;
+    }
+
+    /**
+     * Applies a single changed reminder, replacing any queued entry with the
+     * same id. A recurring reminder is queued at its next occurrence.
+     * Returns true when the earliest due time may have moved.
+     *
+     * Storage's current generation is taken as the one after this change,
+     * which holds when changes are applied on the thread that writes them.
+     */
+    public boolean apply(ReminderRecord reminder) {
+        return apply(reminder, storage.generation());
+    }
+
+    /** As {@link #apply(ReminderRecord)}, with the storage generation read right after the change was written. */
+    public boolean apply(ReminderRecord reminder, long generation) {
+        ensureLoaded(generation);
+        long now = clock.now();
+        long headBefore = headDueAt;
+        wheel.remove(reminder.id);
+        if (!reminder.isCompleted) {
+            add(reminder.id, reminder.nextDueAt(now - TRIGGER_WINDOW_MS), now);
+        }
+        changed(generation);
+        return headDueAt != headBefore;
+    }
+
+    /** Drops a reminder from the index. Returns true when it was queued. */
+    public boolean remove(int reminderId) {
+        return remove(reminderId, storage.generation());
+    }
+
+    /** As {@link #remove(int)}, with the storage generation read right after the removal was written. */
+    public boolean remove(int reminderId, long generation) {
+        ensureLoaded(generation);
+        boolean removed = wheel.remove(reminderId);
+        changed(generation);
+        return removed;
+    }
+
+    /** Handles everything due now. Returns the number of occurrences delivered. */
+    public int check() {
+        ensureLoaded();
+        long now = clock.now();
+        int delivered = 0;
+        int dueCount;
+        do {
+            dueCount = wheel.pollDue(now, dueIds, dueTimes);
+            for (int i = 0; i < dueCount; i++) {
+                if (handleDue(dueIds[i], dueTimes[i], now)) {
+                    delivered++;
+                }
+            }
+        } while (dueCount > 0);
+        lastCheckAt = Math.max(lastCheckAt, now);
+        save();
+        metrics.increment(Metrics.CHECKS);
+        return delivered;
+    }
+
+    /** Earliest pending due time, or -1 when nothing is pending. */
+    public long nextDueAt() {
+        return headDueAt;
+    }
+
+    /**
+     * True when nothing is due within {@code windowMs} of now, so the host
+     * may shut down until its wake-up for the next reminder.
+     */
+    public boolean isIdleFor(long windowMs) {
+        long nextDueAt = nextDueAt();
+        return nextDueAt < 0 || nextDueAt - clock.now() > windowMs;
+    }
+
+    /**
+     * Milliseconds until the earliest due time when it falls within the
+     * pre-roll lead, otherwise -1.
+     */
+    public long prerollRemaining() {
+        long now = clock.now();
+        long nextDueAt = nextDueAt();
+        if (nextDueAt < 0 || nextDueAt <= now || nextDueAt - now > PREROLL_LEAD_MS) {
+            return -1;
+        }
+        return nextDueAt - now;
+    }
+
+    /**
+     * Copies the reminders coming due within the pre-roll lead, and not due
+     * yet, into the arrays, as many as fit. Returns the number written.
+     */
+    public int upcoming(int[] outIds, long[] outDueAt) {
+        ensureLoaded();
+        long now = clock.now();
+        int found = wheel.peekDue(now + PREROLL_LEAD_MS, outIds, outDueAt);
+        int count = 0;
+        for (int i = 0; i < found; i++) {
+            if (outDueAt[i] > now) {
+                outIds[count] = outIds[i];
+                outDueAt[count++] = outDueAt[i];
+            }
+        }
+        return count;
+    }
+
+    public int size() {
+        ensureLoaded();
+        return wheel.size();
+    }
+
+    private void ensureLoaded() {
+        ensureLoaded(-1);
+    }
+
+    private void ensureLoaded(long pendingGeneration) {
+        if (!loaded) {
+            reload(pendingGeneration);
+        }
+    }
+
+    // Generations only grow, and a change may be applied after a reload that already saw it
+    private void changed(long changeGeneration) {
+        generation = Math.max(generation, changeGeneration);
+        save();
+    }
+
+    // Every change to the wheel ends here, so headDueAt stays current
+    private void save() {
+        headDueAt = wheel.peekDueAt();
+        if (snapshot != null) {
+            snapshot.save(lastCheckAt, headDueAt, generation);
+        }
+    }
+
+    // Due time a stored reminder is pending at, or -1 when it is completed or long past
+    private static long pendingDueAt(Storage storage, int id, long dueAt, int flags, long now) {
+        if ((flags & ReminderStore.FLAG_COMPLETED) != 0) {
+            return -1;
+        }
+        if ((flags & ReminderStore.FLAG_RECURRING) != 0 && now - dueAt > TRIGGER_WINDOW_MS) {
+            // Occurrences passed while nothing was running; catch the series up
+            dueAt = storage.advanceRecurrence(id, dueAt, now);
+        }
+        return dueAt > 0 && now - dueAt <= TRIGGER_WINDOW_MS ? dueAt : -1;
+    }
+
+    // Reminders without a due time and reminders already past the trigger window are ignored
+    private void add(int id, long dueAt, long now) {
+        if (dueAt <= 0 || now - dueAt > TRIGGER_WINDOW_MS) {
+            return;
+        }
+        wheel.add(id, dueAt);
+    }
+
+    private boolean handleDue(int reminderId, long dueAt, long now) {
+        metrics.increment(Metrics.REMINDERS_SCANNED);
+        // Queue the next occurrence first so a failed call cannot end the series
+        long nextDueAt = storage.advanceRecurrence(reminderId, dueAt, now);
+        if (nextDueAt > 0) {
+            add(reminderId, nextDueAt, now);
+        }
+
+        if (now - dueAt > TRIGGER_WINDOW_MS) {
+            metrics.increment(Metrics.REMINDERS_MISSED);
+            sink.onMissed(reminderId, dueAt, now);
+            return false;
+        }
+
+        // Skip if this occurrence already rang, even in an earlier process
+        if (triggerLog != null && triggerLog.contains(reminderId, dueAt, now)) {
+            return false;
+        }
+
+        ReminderRecord reminder = storage.find(reminderId);
+        if (reminder == null) {
+            return false;
+        }
+
+        if (triggerLog != null) {
+            triggerLog.record(reminder.id, dueAt, now);
+        }
+        sink.deliver(reminder, dueAt, now);
+        return true;
+    }
+}
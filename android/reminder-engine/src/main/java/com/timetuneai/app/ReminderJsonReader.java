@@ -0,0 +1,115 @@
+package com.timetuneai.app;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.TimeZone;
+
+/**
+ * Reads a "reminders" JSON array into ReminderStore one reminder at a time.
+ * The tokenizer walks the array itself and only parses each element, so a
+ * single reminder's JSONObject is live at a time; no JSONArray holding the
+ * whole sync is built.
+ *
+ * Each reminder is indexed through ReminderRecord.fromJson and stored as its
+ * compact JSON, the same way a single upsert is, so a full sync and a delta
+ * index identical values. Not thread-safe; callers hold the store's lock.
+ */
+public final class ReminderJsonReader {
+
+    public interface Visitor {
+        void visit(JSONObject reminder) throws IOException;
+    }
+
+    private ReminderJsonReader() {}
+
+    /** Hands every reminder of the array in {@code json} to the visitor. Returns the count. */
+    public static int read(String json, Visitor visitor) throws IOException {
+        return walk(json, visitor);
+    }
+
+    /**
+     * Replaces every reminder in the store with the array in {@code json},
+     * parsed once into a staging store under {@code stagingDirectory} that
+     * is copied over only when the whole payload read cleanly; a malformed
+     * payload throws and leaves the store untouched. Reminders already
+     * stored keep their version so late deltas are still ordered, the rest
+     * get 0. Recurring reminders are indexed at their first occurrence at or
+     * after {@code from}.
+     */
+    public static int replace(final ReminderStore store, File stagingDirectory, String json,
+                              final TimeZone zone, final long from) throws IOException {
+        final ReminderStore staging = new ReminderStore(stagingDirectory);
+        try {
+            // Left behind if the process died during an earlier sync
+            staging.clear();
+            int count = read(json, reminder ->
+                put(staging, reminder, Math.max(0, store.version(reminder.optInt("id"))), zone, from));
+            store.replaceWith(staging);
+            return count;
+        } finally {
+            staging.discard();
+        }
+    }
+
+    /** Indexes and stores one reminder at {@code version}. Returns it as read. */
+    public static ReminderRecord put(ReminderStore store, JSONObject reminder, long version, TimeZone zone,
+                                     long from) throws IOException {
+        ReminderRecord record = ReminderRecord.fromJson(reminder, zone);
+        int flags = 0;
+        if (record.isCompleted) {
+            flags |= ReminderStore.FLAG_COMPLETED;
+        }
+        if (record.isRecurring()) {
+            flags |= ReminderStore.FLAG_RECURRING;
+        }
+        store.put(
+            record.id,
+            record.nextDueAt(from),
+            flags,
+            ReminderStore.priorityCode(reminder.optString("priority")),
+            ReminderStore.categoryCode(reminder.optString("category")),
+            version,
+            reminder.toString()
+        );
+        return record;
+    }
+
+    // Parses element by element, handing each one over as soon as it is read
+    private static int walk(String json, Visitor visitor) throws IOException {
+        JSONTokener tokener = new JSONTokener(json);
+        int count = 0;
+        try {
+            if (tokener.nextClean() != '[') {
+                throw new IOException("Reminders are not an array");
+            }
+            if (tokener.nextClean() != ']') {
+                tokener.back();
+                while (true) {
+                    Object value = tokener.nextValue();
+                    if (!(value instanceof JSONObject)) {
+                        throw new IOException("Reminder " + count + " is not an object");
+                    }
+                    visitor.visit((JSONObject) value);
+                    count++;
+                    char next = tokener.nextClean();
+                    if (next == ']') {
+                        break;
+                    }
+                    if (next != ',') {
+                        throw new IOException("Expected , or ] after reminder " + count);
+                    }
+                }
+            }
+            if (tokener.nextClean() != 0) {
+                throw new IOException("Unexpected content after reminders array");
+            }
+        } catch (JSONException e) {
+            throw new IOException("Malformed reminders: " + e.getMessage(), e);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+package com.timetuneai.app;
+
+import org.json.JSONObject;
+
+import java.util.TimeZone;
+
+/**
+ * Native view of a single reminder synced from the JS RemindersContext.
+ * The due time is resolved to epoch millis once, when the reminder is read,
+ * so the scheduler can order and compare reminders without re-parsing.
+ * Reminders without a parseable date and time get a dueAt of -1. For a
+ * recurring reminder dueAt is the first occurrence and {@link #recurrence}
+ * yields the later ones.
+ */
+public class ReminderRecord {
+    public final int id;
+    public final String title;
+    public final String description;
+    public final String date;
+    public final String time;
+    public final boolean isCompleted;
+    public final long dueAt;
+    public final RecurrenceRule recurrence;
+
+    public ReminderRecord(int id, String title, String description, String date, String time,
+                          boolean isCompleted, long dueAt, RecurrenceRule recurrence) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.date = date;
+        this.time = time;
+        this.isCompleted = isCompleted;
+        this.dueAt = dueAt;
+        this.recurrence = recurrence;
+    }
+
+    public boolean hasDueTime() {
+        return dueAt > 0;
+    }
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Due time to schedule: the first occurrence at or after {@code from} for
+     * a recurring reminder (-1 once its series has ended), dueAt otherwise.
+     */
+    public long nextDueAt(long from) {
+        return recurrence != null ? recurrence.nextOccurrence(from) : dueAt;
+    }
+
+    public static ReminderRecord fromJson(JSONObject reminder, TimeZone zone) {
+        String date = reminder.optString("date", "");
+        String time = reminder.optString("time", "");
+        long dueAt = DueTimes.toEpochMillis(date, time, zone);
+        return new ReminderRecord(
+            reminder.optInt("id"),
+            reminder.optString("title", ""),
+            reminder.optString("description", ""),
+            date,
+            time,
+            reminder.optBoolean("isCompleted", false),
+            dueAt,
+            RecurrenceRule.fromJson(reminder, dueAt, zone)
+        );
+    }
+}
@@ -0,0 +1,472 @@
+package com.timetuneai.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * On-disk reminder store. Fixed-width records (id, due time, flags, priority,
+ * category, version) live in a memory-mapped index file, so due times can be
+ * scanned without decoding any text. Each reminder's JSON is appended to a
+ * side segment and only read back when the reminder is actually needed.
+ *
+ * Compaction writes the live text to a new segment file. Each record keeps
+ * its text offset for the current segment and for the next one in two
+ * halves of one field, so the new offsets are written and forced alongside
+ * the current ones, and only then does the header switch segments. A crash
+ * at any point leaves every record pointing into the segment it names.
+ *
+ * Not thread-safe; ReminderRepository serializes access.
+ */
+public class ReminderStore {
+    public static final int FLAG_LIVE = 1;
+    public static final int FLAG_COMPLETED = 1 << 1;
+    public static final int FLAG_RECURRING = 1 << 2;
+
+    public static final int PRIORITY_LOW = 0;
+    public static final int PRIORITY_MEDIUM = 1;
+    public static final int PRIORITY_HIGH = 2;
+
+    public static final int CATEGORY_PERSONAL = 0;
+    public static final int CATEGORY_WORK = 1;
+    public static final int CATEGORY_HEALTH = 2;
+    public static final int CATEGORY_OTHER = 3;
+
+    public interface RecordVisitor {
+        void visit(int id, long dueAt, int flags);
+    }
+
+    private static final String INDEX_FILE = "index.bin";
+    private static final String TEXT_FILE = "text.bin";
+
+    private static final int MAGIC = 0x54545253; // "TTRS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long MIN_COMPACT_BYTES = 64 * 1024;
+
+    // Header layout
+    private static final int HEADER_SIZE = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_FORMAT = 4;
+    private static final int H_SLOTS = 8;
+    private static final int H_GENERATION = 16;
+    private static final int H_TEXT_END = 24;
+    private static final int H_TEXT_GARBAGE = 32;
+    private static final int H_SYNC_HASH = 40;
+    private static final int H_SYNC_GENERATION = 48;
+    private static final int H_TEXT_SEGMENT = 56;
+
+    // Record layout
+    private static final int RECORD_SIZE = 40;
+    private static final int R_ID = 0;
+    private static final int R_FLAGS = 4;
+    private static final int R_DUE_AT = 8;
+    private static final int R_VERSION = 16;
+    // Two 32-bit offsets: even segments use the low half, odd ones the high half
+    private static final int R_TEXT_OFFSET = 24;
+    private static final int R_TEXT_LENGTH = 32;
+    private static final int R_PRIORITY = 36;
+    private static final int R_CATEGORY = 37;
+
+    private final File directory;
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private RandomAccessFile indexFile;
+    private MappedByteBuffer index;
+    private int capacity;
+    private RandomAccessFile textFile;
+    private FileChannel text;
+    private boolean created;
+
+    public ReminderStore(File directory) throws IOException {
+        this.directory = directory;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        open();
+    }
+
+    /** True when the store was created by this open, i.e. nothing was on disk yet. */
+    public boolean isNew() {
+        return created;
+    }
+
+    public int size() {
+        return slotsById.size();
+    }
+
+    /** Bumped on every write; lets readers tell whether cached data is stale. */
+    public long generation() {
+        return index.getLong(H_GENERATION);
+    }
+
+    /** Bumps the generation after index-only changes that readers must not miss, such as bulk setDueAt. */
+    public void markChanged() {
+        bumpGeneration();
+    }
+
+    /** Records that the current contents are exactly the full sync payload with this hash. */
+    public void markSynced(long contentHash) {
+        index.putLong(H_SYNC_HASH, contentHash);
+        index.putLong(H_SYNC_GENERATION, generation());
+    }
+
+    /** True when nothing was written since a full sync whose payload had this hash. */
+    public boolean isSyncedWith(long contentHash) {
+        return index.getLong(H_SYNC_HASH) == contentHash
+            && index.getLong(H_SYNC_GENERATION) == generation();
+    }
+
+    public boolean contains(int id) {
+        return slotsById.containsKey(id);
+    }
+
+    /** Version of the live record with this id, or -1 when there is none. */
+    public long version(int id) {
+        Integer slot = slotsById.get(id);
+        return slot != null ? index.getLong(recordOffset(slot) + R_VERSION) : -1;
+    }
+
+    public int flags(int id) {
+        Integer slot = slotsById.get(id);
+        return slot != null ? index.getInt(recordOffset(slot) + R_FLAGS) : 0;
+    }
+
+    public long dueAt(int id) {
+        Integer slot = slotsById.get(id);
+        return slot != null ? index.getLong(recordOffset(slot) + R_DUE_AT) : -1;
+    }
+
+    public void put(int id, long dueAt, int flags, int priority, int category, long version, String json)
+            throws IOException {
+        put(id, dueAt, flags, priority, category, version, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Replaces every record with those of {@code staging}, copying the text
+     * bytes as they are, so a full sync built there is never parsed twice.
+     */
+    public void replaceWith(ReminderStore staging) throws IOException {
+        clear();
+        for (int slot : staging.slotsById.values()) {
+            int offset = recordOffset(slot);
+            ByteBuffer bytes = ByteBuffer.allocate(staging.index.getInt(offset + R_TEXT_LENGTH));
+            staging.readFully(bytes, staging.textOffset(offset));
+            put(staging.index.getInt(offset + R_ID),
+                staging.index.getLong(offset + R_DUE_AT),
+                staging.index.getInt(offset + R_FLAGS),
+                staging.index.get(offset + R_PRIORITY),
+                staging.index.get(offset + R_CATEGORY),
+                staging.index.getLong(offset + R_VERSION),
+                bytes.array());
+        }
+    }
+
+    private void put(int id, long dueAt, int flags, int priority, int category, long version, byte[] bytes)
+            throws IOException {
+        long textEnd = index.getLong(H_TEXT_END);
+        writeFully(ByteBuffer.wrap(bytes), textEnd);
+
+        Integer slot = slotsById.get(id);
+        if (slot != null) {
+            addGarbage(index.getInt(recordOffset(slot) + R_TEXT_LENGTH));
+        } else {
+            slot = allocateSlot();
+            slotsById.put(id, slot);
+        }
+
+        int offset = recordOffset(slot);
+        index.putInt(offset + R_ID, id);
+        index.putLong(offset + R_DUE_AT, dueAt);
+        index.putLong(offset + R_VERSION, version);
+        index.putInt(textOffsetField(offset, segment()), (int) textEnd);
+        index.putInt(offset + R_TEXT_LENGTH, bytes.length);
+        index.put(offset + R_PRIORITY, (byte) priority);
+        index.put(offset + R_CATEGORY, (byte) category);
+        // Flags last: a record only becomes live once everything else is written
+        index.putInt(offset + R_FLAGS, flags | FLAG_LIVE);
+
+        index.putLong(H_TEXT_END, textEnd + bytes.length);
+        bumpGeneration();
+        compactIfNeeded();
+    }
+
+    /**
+     * Moves the indexed due time of a record, e.g. to the next occurrence of
+     * a recurring reminder. Only the index changes, so the generation and
+     * the text segment are left alone. Returns false when the id is unknown.
+     */
+    public boolean setDueAt(int id, long dueAt) {
+        Integer slot = slotsById.get(id);
+        if (slot == null) {
+            return false;
+        }
+        index.putLong(recordOffset(slot) + R_DUE_AT, dueAt);
+        return true;
+    }
+
+    public boolean delete(int id) throws IOException {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        int offset = recordOffset(slot);
+        index.putInt(offset + R_FLAGS, 0);
+        addGarbage(index.getInt(offset + R_TEXT_LENGTH));
+        freeSlots.push(slot);
+        bumpGeneration();
+        compactIfNeeded();
+        return true;
+    }
+
+    public void clear() throws IOException {
+        for (int slot : slotsById.values()) {
+            index.putInt(recordOffset(slot) + R_FLAGS, 0);
+        }
+        slotsById.clear();
+        freeSlots.clear();
+        index.putInt(H_SLOTS, 0);
+        index.putLong(H_TEXT_END, 0);
+        index.putLong(H_TEXT_GARBAGE, 0);
+        text.truncate(0);
+        bumpGeneration();
+    }
+
+    /** Reads the JSON stored for a reminder, or null when the id is unknown. */
+    public String readText(int id) throws IOException {
+        Integer slot = slotsById.get(id);
+        if (slot == null) {
+            return null;
+        }
+        int offset = recordOffset(slot);
+        ByteBuffer bytes = ByteBuffer.allocate(index.getInt(offset + R_TEXT_LENGTH));
+        readFully(bytes, textOffset(offset));
+        return new String(bytes.array(), StandardCharsets.UTF_8);
+    }
+
+    /** Visits the fixed-width fields of every live record without reading any text. */
+    public void forEach(RecordVisitor visitor) {
+        int slots = index.getInt(H_SLOTS);
+        for (int slot = 0; slot < slots; slot++) {
+            int offset = recordOffset(slot);
+            int flags = index.getInt(offset + R_FLAGS);
+            if ((flags & FLAG_LIVE) != 0) {
+                visitor.visit(index.getInt(offset + R_ID), index.getLong(offset + R_DUE_AT), flags);
+            }
+        }
+    }
+
+    /** Forces text and index pages to disk, text first so records never point past it. */
+    public void flush() throws IOException {
+        text.force(false);
+        index.force();
+    }
+
+    public void close() throws IOException {
+        flush();
+        text.close();
+        textFile.close();
+        indexFile.close();
+    }
+
+    /** Closes the store without flushing and deletes its files, as for a staging store. */
+    public void discard() throws IOException {
+        text.close();
+        textFile.close();
+        indexFile.close();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public static int priorityCode(String priority) {
+        if ("low".equals(priority)) {
+            return PRIORITY_LOW;
+        }
+        if ("high".equals(priority)) {
+            return PRIORITY_HIGH;
+        }
+        return PRIORITY_MEDIUM;
+    }
+
+    public static int categoryCode(String category) {
+        if ("work".equals(category)) {
+            return CATEGORY_WORK;
+        }
+        if ("health".equals(category)) {
+            return CATEGORY_HEALTH;
+        }
+        if ("other".equals(category)) {
+            return CATEGORY_OTHER;
+        }
+        return CATEGORY_PERSONAL;
+    }
+
+    private void open() throws IOException {
+        File indexPath = new File(directory, INDEX_FILE);
+        created = !indexPath.exists() || indexPath.length() < HEADER_SIZE;
+        indexFile = new RandomAccessFile(indexPath, "rw");
+
+        if (created) {
+            mapIndex(INITIAL_CAPACITY);
+            index.putLong(H_TEXT_SEGMENT, 0);
+            openText();
+            index.putInt(H_MAGIC, MAGIC);
+            index.putInt(H_FORMAT, FORMAT_VERSION);
+            index.putInt(H_SLOTS, 0);
+            index.putLong(H_GENERATION, 0);
+            index.putLong(H_TEXT_END, 0);
+            index.putLong(H_TEXT_GARBAGE, 0);
+            index.putLong(H_SYNC_HASH, 0);
+            index.putLong(H_SYNC_GENERATION, -1);
+            text.truncate(0);
+            return;
+        }
+
+        mapIndex((int) ((indexPath.length() - HEADER_SIZE) / RECORD_SIZE));
+        if (index.getInt(H_MAGIC) != MAGIC || index.getInt(H_FORMAT) != FORMAT_VERSION) {
+            throw new IOException("Unrecognized reminder store in " + directory);
+        }
+        openText();
+        // Left behind by a compaction interrupted before or after the switch
+        segmentFile(segment() + 1).delete();
+        if (segment() > 0) {
+            segmentFile(segment() - 1).delete();
+        }
+
+        int slots = index.getInt(H_SLOTS);
+        for (int slot = 0; slot < slots; slot++) {
+            int offset = recordOffset(slot);
+            if ((index.getInt(offset + R_FLAGS) & FLAG_LIVE) != 0) {
+                slotsById.put(index.getInt(offset + R_ID), slot);
+            } else {
+                freeSlots.push(slot);
+            }
+        }
+    }
+
+    private void mapIndex(int slots) throws IOException {
+        capacity = Math.max(slots, INITIAL_CAPACITY);
+        // Mapping past the end of the file grows it
+        index = indexFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+            HEADER_SIZE + (long) capacity * RECORD_SIZE);
+    }
+
+    private int allocateSlot() throws IOException {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        int slot = index.getInt(H_SLOTS);
+        if (slot >= capacity) {
+            index.force();
+            mapIndex(capacity * 2);
+        }
+        index.putInt(H_SLOTS, slot + 1);
+        return slot;
+    }
+
+    private static int recordOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private long segment() {
+        return index.getLong(H_TEXT_SEGMENT);
+    }
+
+    // Segment 0 keeps the original file name, so stores written before segments existed still open
+    private File segmentFile(long segment) {
+        return new File(directory, segment == 0 ? TEXT_FILE : "text." + segment + ".bin");
+    }
+
+    private void openText() throws IOException {
+        textFile = new RandomAccessFile(segmentFile(segment()), "rw");
+        text = textFile.getChannel();
+    }
+
+    private static int textOffsetField(int offset, long segment) {
+        return offset + R_TEXT_OFFSET + (segment % 2 == 0 ? 4 : 0);
+    }
+
+    private long textOffset(int offset) {
+        return index.getInt(textOffsetField(offset, segment())) & 0xffffffffL;
+    }
+
+    private void bumpGeneration() {
+        index.putLong(H_GENERATION, index.getLong(H_GENERATION) + 1);
+    }
+
+    private void addGarbage(int bytes) {
+        index.putLong(H_TEXT_GARBAGE, index.getLong(H_TEXT_GARBAGE) + bytes);
+    }
+
+    // Rewrites the side segment once more than half of it belongs to replaced or deleted records
+    private void compactIfNeeded() throws IOException {
+        long garbage = index.getLong(H_TEXT_GARBAGE);
+        long textEnd = index.getLong(H_TEXT_END);
+        if (garbage < MIN_COMPACT_BYTES || garbage * 2 < textEnd) {
+            return;
+        }
+
+        long current = segment();
+        long next = current + 1;
+        File nextPath = segmentFile(next);
+        Map<Integer, Long> newOffsets = new HashMap<>();
+        long newEnd = 0;
+        try (RandomAccessFile compactFile = new RandomAccessFile(nextPath, "rw")) {
+            FileChannel compact = compactFile.getChannel();
+            compact.truncate(0);
+            for (int slot : slotsById.values()) {
+                int offset = recordOffset(slot);
+                ByteBuffer bytes = ByteBuffer.allocate(index.getInt(offset + R_TEXT_LENGTH));
+                readFully(bytes, textOffset(offset));
+                bytes.flip();
+                while (bytes.hasRemaining()) {
+                    compact.write(bytes, newEnd + bytes.position());
+                }
+                newOffsets.put(slot, newEnd);
+                newEnd += bytes.limit();
+            }
+            compact.force(false);
+        }
+
+        // The current offsets stay untouched until the header names the new segment
+        for (Map.Entry<Integer, Long> entry : newOffsets.entrySet()) {
+            index.putInt(textOffsetField(recordOffset(entry.getKey()), next), entry.getValue().intValue());
+        }
+        index.force();
+        index.putLong(H_TEXT_END, newEnd);
+        index.putLong(H_TEXT_GARBAGE, 0);
+        index.putLong(H_TEXT_SEGMENT, next);
+        index.force();
+
+        text.close();
+        textFile.close();
+        openText();
+        segmentFile(current).delete();
+    }
+
+    private void writeFully(ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            text.write(bytes, position + bytes.position());
+        }
+    }
+
+    private void readFully(ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            if (text.read(bytes, position + bytes.position()) < 0) {
+                throw new IOException("Reminder text truncated at " + position);
+            }
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.timetuneai.app;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel holding pending reminders by due time. Three
+ * tiers of buckets cover the next hour by minute, the next day by hour and
+ * the next 64 days by day; anything further out waits in an overflow list.
+ * As time advances, the bucket for each new hour or day is cascaded down
+ * into the finer tier. Adding, cancelling and collecting a reminder are
+ * constant time whatever the total count.
+ *
+ * Buckets are circular doubly-linked lists threaded through primitive
+ * arrays, each with a sentinel node, so unlinking a node needs no bucket
+ * lookup and a whole minute bucket is spliced onto the due list in one step.
+ * Nodes are recycled through a free list; once the pool has grown to the
+ * working set, nothing on the add, cancel or collect path allocates.
+ *
+ * Each bucket also keeps its earliest due time and how many entries share
+ * it, so finding the earliest entry visits bucket heads only. A bucket is
+ * rescanned just when the last entry at its earliest time leaves it.
+ */
+public class TimingWheel {
+    private static final long MINUTE_MS = DueTimes.MINUTE_MS;
+    private static final int MINUTE_SLOTS = 60;
+    private static final int HOUR_SLOTS = 24;
+    private static final int DAY_SLOTS = 64;
+
+    // Sentinel node indices; real nodes follow them in the same arrays
+    private static final int MINUTE_BASE = 0;
+    private static final int HOUR_BASE = MINUTE_BASE + MINUTE_SLOTS;
+    private static final int DAY_BASE = HOUR_BASE + HOUR_SLOTS;
+    private static final int OVERFLOW = DAY_BASE + DAY_SLOTS;
+    private static final int DUE = OVERFLOW + 1;
+    private static final int SENTINELS = DUE + 1;
+    private static final int NONE = -1;
+
+    private int[] next;
+    private int[] prev;
+    private int[] ids;
+    private long[] dueAt;
+    // Bucket each node was placed in; nodes since spliced onto DUE are told apart by due time
+    private int[] home;
+    // Per bucket: earliest due time and the entries due then; a count of 0 in a non-empty bucket means stale
+    private final long[] bucketMin = new long[SENTINELS];
+    private final int[] bucketMinCount = new int[SENTINELS];
+    private int freeHead = NONE;
+    private int allocated = SENTINELS;
+
+    // id -> node index
+    private final IntIntMap nodes;
+    // Minutes since the epoch that the wheel has advanced to
+    private long currentMinute;
+    private long overflowMinDay = Long.MAX_VALUE;
+
+    public TimingWheel(long now, int initialCapacity) {
+        int capacity = SENTINELS + Math.max(16, initialCapacity);
+        next = new int[capacity];
+        prev = new int[capacity];
+        ids = new int[capacity];
+        dueAt = new long[capacity];
+        home = new int[capacity];
+        nodes = new IntIntMap(initialCapacity);
+        currentMinute = Math.floorDiv(now, MINUTE_MS);
+        for (int sentinel = 0; sentinel < SENTINELS; sentinel++) {
+            next[sentinel] = sentinel;
+            prev[sentinel] = sentinel;
+        }
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    public boolean contains(int id) {
+        return nodes.containsKey(id);
+    }
+
+    /** Adds an entry, or moves it if the id is already queued. */
+    public void add(int id, long due) {
+        int node = nodes.get(id, NONE);
+        if (node == NONE) {
+            node = allocateNode();
+            ids[node] = id;
+            nodes.put(id, node);
+        } else {
+            unlink(node);
+        }
+        dueAt[node] = due;
+        place(node);
+    }
+
+    public boolean remove(int id) {
+        int node = nodes.remove(id, NONE);
+        if (node == NONE) {
+            return false;
+        }
+        unlink(node);
+        freeNode(node);
+        return true;
+    }
+
+    public void clear() {
+        for (int sentinel = 0; sentinel < SENTINELS; sentinel++) {
+            next[sentinel] = sentinel;
+            prev[sentinel] = sentinel;
+            bucketMinCount[sentinel] = 0;
+        }
+        nodes.clear();
+        freeHead = NONE;
+        allocated = SENTINELS;
+        overflowMinDay = Long.MAX_VALUE;
+    }
+
+    /**
+     * Advances the wheel to {@code now}, removes entries due at or before it
+     * and copies their ids and due times into {@code outIds} and
+     * {@code outDueAt}. Stops when the arrays are full, so callers loop until
+     * nothing comes back. Returns the number of entries written.
+     */
+    public int pollDue(long now, int[] outIds, long[] outDueAt) {
+        advanceTo(Math.floorDiv(now, MINUTE_MS));
+
+        int count = drain(DUE, Long.MAX_VALUE, outIds, outDueAt, 0);
+        // The current minute's bucket may still hold entries due later in the minute
+        return drain(minuteSlot(currentMinute), now, outIds, outDueAt, count);
+    }
+
+    /**
+     * Copies the ids and due times of entries due at or before {@code dueBy}
+     * into the arrays without removing them, stopping when the arrays are
+     * full. Meant for looking a few seconds past the last poll: only the
+     * buckets up to {@code dueBy}'s minute, hour and day are visited.
+     * Returns the number of entries written.
+     */
+    public int peekDue(long dueBy, int[] outIds, long[] outDueAt) {
+        long dueByMinute = Math.floorDiv(dueBy, MINUTE_MS);
+        int count = collect(DUE, dueBy, outIds, outDueAt, 0);
+        long lastMinute = Math.min(dueByMinute, currentMinute + MINUTE_SLOTS - 1);
+        for (long minute = currentMinute; minute <= lastMinute; minute++) {
+            count = collect(minuteSlot(minute), dueBy, outIds, outDueAt, count);
+        }
+        // Past an hour or day boundary, entries may not have cascaded down yet
+        long currentHour = Math.floorDiv(currentMinute, 60);
+        long lastHour = Math.min(Math.floorDiv(dueByMinute, 60), currentHour + HOUR_SLOTS - 1);
+        for (long hour = currentHour + 1; hour <= lastHour; hour++) {
+            count = collect(hourSlot(hour), dueBy, outIds, outDueAt, count);
+        }
+        long currentDay = Math.floorDiv(currentHour, 24);
+        long lastDay = Math.min(Math.floorDiv(dueByMinute, 24 * 60), currentDay + DAY_SLOTS - 1);
+        for (long day = currentDay + 1; day <= lastDay; day++) {
+            count = collect(daySlot(day), dueBy, outIds, outDueAt, count);
+        }
+        return count;
+    }
+
+    /**
+     * Earliest due time in the wheel, or -1 when it is empty. Within a tier
+     * buckets are in time order, but an entry placed in a coarser tier a
+     * while ago can be due before one placed in a finer tier since, so the
+     * first non-empty bucket of each tier is compared. Costs at most one lap
+     * of each tier, plus a pass over a bucket whose earliest entries left.
+     */
+    public long peekDueAt() {
+        if (nodes.size() == 0) {
+            return -1;
+        }
+        long earliest = earliestIn(DUE);
+        if (earliest != Long.MAX_VALUE) {
+            return earliest;
+        }
+        long currentHour = Math.floorDiv(currentMinute, 60);
+        long currentDay = Math.floorDiv(currentHour, 24);
+        for (int i = 0; i < MINUTE_SLOTS; i++) {
+            int bucket = minuteSlot(currentMinute + i);
+            if (next[bucket] != bucket) {
+                earliest = earliestIn(bucket);
+                break;
+            }
+        }
+        for (int i = 1; i < HOUR_SLOTS; i++) {
+            int bucket = hourSlot(currentHour + i);
+            if (next[bucket] != bucket) {
+                earliest = Math.min(earliest, earliestIn(bucket));
+                break;
+            }
+        }
+        for (int i = 1; i < DAY_SLOTS; i++) {
+            int bucket = daySlot(currentDay + i);
+            if (next[bucket] != bucket) {
+                earliest = Math.min(earliest, earliestIn(bucket));
+                break;
+            }
+        }
+        // Overflow entries are always further out than anything in the tiers
+        return earliest != Long.MAX_VALUE ? earliest : earliestIn(OVERFLOW);
+    }
+
+    private void advanceTo(long targetMinute) {
+        while (currentMinute < targetMinute) {
+            // Everything left in the minute being passed is now due
+            splice(minuteSlot(currentMinute), DUE);
+
+            long nextMinute = currentMinute + 1;
+            if (isEmpty(MINUTE_BASE, MINUTE_SLOTS)) {
+                // Nothing can land in an empty tier before the next cascade from above
+                long boundary = isEmpty(HOUR_BASE, HOUR_SLOTS)
+                    ? (Math.floorDiv(currentMinute, 24 * 60) + 1) * 24 * 60
+                    : (Math.floorDiv(currentMinute, 60) + 1) * 60;
+                nextMinute = Math.max(nextMinute, Math.min(targetMinute, boundary));
+            }
+            currentMinute = nextMinute;
+
+            if (currentMinute % 60 == 0) {
+                long hour = currentMinute / 60;
+                if (hour % 24 == 0) {
+                    long day = hour / 24;
+                    cascade(daySlot(day));
+                    if (day >= overflowMinDay - (DAY_SLOTS - 1)) {
+                        cascadeOverflow();
+                    }
+                }
+                cascade(hourSlot(hour));
+            }
+        }
+    }
+
+    private boolean isEmpty(int base, int slots) {
+        for (int slot = base; slot < base + slots; slot++) {
+            if (next[slot] != slot) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Re-places every entry of a coarser bucket relative to the current minute
+    private void cascade(int bucket) {
+        int node = next[bucket];
+        if (node == bucket) {
+            return;
+        }
+        // Detach the list first; overflow entries may be placed straight back
+        int last = prev[bucket];
+        next[bucket] = bucket;
+        prev[bucket] = bucket;
+        bucketMinCount[bucket] = 0;
+        while (true) {
+            int following = next[node];
+            place(node);
+            if (node == last) {
+                break;
+            }
+            node = following;
+        }
+    }
+
+    private void cascadeOverflow() {
+        overflowMinDay = Long.MAX_VALUE;
+        cascade(OVERFLOW);
+    }
+
+    private void place(int node) {
+        long dueMinute = Math.floorDiv(dueAt[node], MINUTE_MS);
+        long currentHour = Math.floorDiv(currentMinute, 60);
+        long dueHour = Math.floorDiv(dueMinute, 60);
+        long dueDay = Math.floorDiv(dueHour, 24);
+
+        int bucket;
+        if (dueMinute < currentMinute) {
+            bucket = DUE;
+        } else if (dueMinute - currentMinute < MINUTE_SLOTS) {
+            bucket = minuteSlot(dueMinute);
+        } else if (dueHour - currentHour < HOUR_SLOTS) {
+            bucket = hourSlot(dueHour);
+        } else if (dueDay - Math.floorDiv(currentHour, 24) < DAY_SLOTS) {
+            bucket = daySlot(dueDay);
+        } else {
+            bucket = OVERFLOW;
+            overflowMinDay = Math.min(overflowMinDay, dueDay);
+        }
+        linkLast(bucket, node);
+    }
+
+    private int drain(int bucket, long dueBy, int[] outIds, long[] outDueAt, int count) {
+        int node = next[bucket];
+        int limit = Math.min(outIds.length, outDueAt.length);
+        while (node != bucket && count < limit) {
+            int following = next[node];
+            if (dueAt[node] <= dueBy) {
+                outIds[count] = ids[node];
+                outDueAt[count++] = dueAt[node];
+                nodes.remove(ids[node], NONE);
+                unlink(node);
+                freeNode(node);
+            }
+            node = following;
+        }
+        return count;
+    }
+
+    private int collect(int bucket, long dueBy, int[] outIds, long[] outDueAt, int count) {
+        int limit = Math.min(outIds.length, outDueAt.length);
+        for (int node = next[bucket]; node != bucket && count < limit; node = next[node]) {
+            if (dueAt[node] <= dueBy) {
+                outIds[count] = ids[node];
+                outDueAt[count++] = dueAt[node];
+            }
+        }
+        return count;
+    }
+
+    private long earliestIn(int bucket) {
+        if (next[bucket] == bucket) {
+            return Long.MAX_VALUE;
+        }
+        if (bucketMinCount[bucket] == 0) {
+            long earliest = Long.MAX_VALUE;
+            int count = 0;
+            for (int node = next[bucket]; node != bucket; node = next[node]) {
+                if (dueAt[node] < earliest) {
+                    earliest = dueAt[node];
+                    count = 1;
+                } else if (dueAt[node] == earliest) {
+                    count++;
+                }
+            }
+            bucketMin[bucket] = earliest;
+            bucketMinCount[bucket] = count;
+        }
+        return bucketMin[bucket];
+    }
+
+    // A node's minute only falls behind the wheel once it is in DUE, placed or spliced there
+    private int bucketOf(int node) {
+        return Math.floorDiv(dueAt[node], MINUTE_MS) < currentMinute ? DUE : home[node];
+    }
+
+    private static int minuteSlot(long minute) {
+        return MINUTE_BASE + (int) Math.floorMod(minute, (long) MINUTE_SLOTS);
+    }
+
+    private static int hourSlot(long hour) {
+        return HOUR_BASE + (int) Math.floorMod(hour, (long) HOUR_SLOTS);
+    }
+
+    private static int daySlot(long day) {
+        return DAY_BASE + (int) Math.floorMod(day, (long) DAY_SLOTS);
+    }
+
+    private void linkLast(int bucket, int node) {
+        long due = dueAt[node];
+        if (next[bucket] == bucket) {
+            bucketMin[bucket] = due;
+            bucketMinCount[bucket] = 1;
+        } else if (bucketMinCount[bucket] > 0 && due <= bucketMin[bucket]) {
+            bucketMinCount[bucket] = due < bucketMin[bucket] ? 1 : bucketMinCount[bucket] + 1;
+            bucketMin[bucket] = due;
+        }
+        home[node] = bucket;
+        int last = prev[bucket];
+        next[last] = node;
+        prev[node] = last;
+        next[node] = bucket;
+        prev[bucket] = node;
+    }
+
+    private void unlink(int node) {
+        int bucket = bucketOf(node);
+        if (bucketMinCount[bucket] > 0 && dueAt[node] == bucketMin[bucket]) {
+            bucketMinCount[bucket]--;
+        }
+        next[prev[node]] = next[node];
+        prev[next[node]] = prev[node];
+    }
+
+    // Moves every node of one bucket to the end of another in constant time
+    private void splice(int from, int to) {
+        int first = next[from];
+        if (first == from) {
+            return;
+        }
+        if (next[to] == to) {
+            bucketMin[to] = bucketMin[from];
+            bucketMinCount[to] = bucketMinCount[from];
+        } else if (bucketMinCount[to] == 0 || bucketMinCount[from] == 0) {
+            bucketMinCount[to] = 0;
+        } else if (bucketMin[from] <= bucketMin[to]) {
+            bucketMinCount[to] = bucketMin[from] < bucketMin[to]
+                ? bucketMinCount[from] : bucketMinCount[to] + bucketMinCount[from];
+            bucketMin[to] = bucketMin[from];
+        }
+        bucketMinCount[from] = 0;
+        int last = prev[from];
+        int tail = prev[to];
+        next[tail] = first;
+        prev[first] = tail;
+        next[last] = to;
+        prev[to] = last;
+        next[from] = from;
+        prev[from] = from;
+    }
+
+    private int allocateNode() {
+        if (freeHead != NONE) {
+            int node = freeHead;
+            freeHead = next[node];
+            return node;
+        }
+        if (allocated == ids.length) {
+            grow();
+        }
+        return allocated++;
+    }
+
+    private void freeNode(int node) {
+        next[node] = freeHead;
+        freeHead = node;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        dueAt = Arrays.copyOf(dueAt, capacity);
+        home = Arrays.copyOf(home, capacity);
+    }
+}
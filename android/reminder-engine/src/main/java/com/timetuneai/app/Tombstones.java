@@ -0,0 +1,113 @@
+package com.timetuneai.app;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Versions of deleted reminder ids, so a late upsert cannot bring one back,
+ * even across a restart. A tombstone is only needed until a full sync
+ * confirms the delete, so there are rarely more than a handful: they are
+ * kept in a map and {@link #save} rewrites the whole side file, through a
+ * temporary file renamed over it so a crash leaves the old or the new one.
+ *
+ * Not thread-safe; ReminderRepository uses it under its own lock.
+ */
+public class Tombstones {
+    private static final int MAGIC = 0x54545453; // "TTTS"
+    private static final int FORMAT_VERSION = 1;
+
+    private final File path;
+    private final Map<Integer, Long> versions = new HashMap<>();
+    private boolean dirty;
+
+    public Tombstones(File path) throws IOException {
+        this.path = path;
+        if (path.exists()) {
+            load();
+        }
+    }
+
+    /** Version the id was deleted at, or -1 when it has no tombstone. */
+    public long version(int id) {
+        Long version = versions.get(id);
+        return version != null ? version : -1;
+    }
+
+    public void put(int id, long version) {
+        versions.put(id, version);
+        dirty = true;
+    }
+
+    /** Drops the tombstone of an id written again at a newer version. */
+    public void remove(int id) {
+        if (versions.remove(id) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Drops the tombstones of ids the store does not hold, once a full sync
+     * has replaced it and so confirmed those deletes. Returns how many went.
+     */
+    public int prune(ReminderStore store) {
+        int before = versions.size();
+        versions.keySet().removeIf(id -> !store.contains(id));
+        int pruned = before - versions.size();
+        if (pruned > 0) {
+            dirty = true;
+        }
+        return pruned;
+    }
+
+    public int size() {
+        return versions.size();
+    }
+
+    /** Writes the tombstones out if they changed since the last save. */
+    public void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        File temp = new File(path.getPath() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(versions.size());
+            for (Map.Entry<Integer, Long> entry : versions.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        if (!temp.renameTo(path)) {
+            throw new IOException("Cannot replace " + path);
+        }
+        dirty = false;
+    }
+
+    private void load() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                // Nothing worth recovering; the next full sync settles the deletes anyway
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                versions.put(in.readInt(), in.readLong());
+            }
+        } catch (EOFException e) {
+            // A truncated file keeps the entries read so far
+        }
+    }
+}
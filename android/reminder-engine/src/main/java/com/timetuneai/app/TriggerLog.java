@@ -0,0 +1,137 @@
+package com.timetuneai.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Record of which reminder occurrences have already rung, so none rings
+ * twice. Entries are keyed by (reminder id, occurrence due time) and expire
+ * once the occurrence is older than the retention period, after which the
+ * scheduler would treat it as missed anyway.
+ *
+ * The table is a fixed-size open-addressing hash held in a memory-mapped
+ * file: memory use is constant, and every write lands in the page cache
+ * immediately, so the log survives the process being killed or restarted
+ * without an explicit flush. Expired slots are reused in place; when a probe
+ * run has no free slot, its oldest entry is evicted.
+ *
+ * Not thread-safe; ReminderEngine uses it from its host thread.
+ */
+public class TriggerLog {
+    private static final int MAGIC = 0x5454544c; // "TTTL"
+    private static final int FORMAT_VERSION = 1;
+    private static final int SLOTS = 256;
+    private static final int MAX_PROBES = 16;
+
+    // Header layout
+    private static final int HEADER_SIZE = 16;
+    private static final int H_MAGIC = 0;
+    private static final int H_FORMAT = 4;
+    private static final int H_SLOTS = 8;
+
+    // Slot layout; a due time of 0 marks an empty slot
+    private static final int SLOT_SIZE = 16;
+    private static final int S_ID = 0;
+    private static final int S_DUE_AT = 8;
+
+    private final long retentionMs;
+    private final RandomAccessFile file;
+    private final MappedByteBuffer table;
+
+    public TriggerLog(File path, long retentionMs) throws IOException {
+        this.retentionMs = retentionMs;
+        boolean created = !path.exists() || path.length() != HEADER_SIZE + (long) SLOTS * SLOT_SIZE;
+        file = new RandomAccessFile(path, "rw");
+        table = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) SLOTS * SLOT_SIZE);
+
+        if (created || table.getInt(H_MAGIC) != MAGIC || table.getInt(H_FORMAT) != FORMAT_VERSION
+                || table.getInt(H_SLOTS) != SLOTS) {
+            // Nothing worth recovering in an unreadable log; start empty
+            for (int slot = 0; slot < SLOTS; slot++) {
+                table.putLong(slotOffset(slot) + S_DUE_AT, 0);
+            }
+            table.putInt(H_MAGIC, MAGIC);
+            table.putInt(H_FORMAT, FORMAT_VERSION);
+            table.putInt(H_SLOTS, SLOTS);
+        }
+    }
+
+    /** True when this occurrence was recorded and has not expired yet. */
+    public boolean contains(int reminderId, long dueAt, long now) {
+        int slot = home(reminderId, dueAt);
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int offset = slotOffset(slot);
+            long storedDueAt = table.getLong(offset + S_DUE_AT);
+            if (storedDueAt == 0) {
+                return false;
+            }
+            if (storedDueAt == dueAt && table.getInt(offset + S_ID) == reminderId) {
+                return !isExpired(storedDueAt, now);
+            }
+            slot = (slot + 1) & (SLOTS - 1);
+        }
+        return false;
+    }
+
+    /** Records that this occurrence rang. */
+    public void record(int reminderId, long dueAt, long now) {
+        if (dueAt == 0 || contains(reminderId, dueAt, now)) {
+            return;
+        }
+
+        int slot = home(reminderId, dueAt);
+        int oldestSlot = slot;
+        long oldestDueAt = Long.MAX_VALUE;
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            long storedDueAt = table.getLong(slotOffset(slot) + S_DUE_AT);
+            if (storedDueAt == 0 || isExpired(storedDueAt, now)) {
+                oldestSlot = slot;
+                break;
+            }
+            if (storedDueAt < oldestDueAt) {
+                oldestDueAt = storedDueAt;
+                oldestSlot = slot;
+            }
+            slot = (slot + 1) & (SLOTS - 1);
+        }
+
+        int offset = slotOffset(oldestSlot);
+        table.putInt(offset + S_ID, reminderId);
+        // Due time last: it is what marks the slot as used
+        table.putLong(offset + S_DUE_AT, dueAt);
+    }
+
+    /** Number of unexpired entries; walks the whole table. */
+    public int size(long now) {
+        int count = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            long storedDueAt = table.getLong(slotOffset(slot) + S_DUE_AT);
+            if (storedDueAt != 0 && !isExpired(storedDueAt, now)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void close() throws IOException {
+        table.force();
+        file.close();
+    }
+
+    // An expired slot stays non-zero so later entries of its probe run remain reachable
+    private boolean isExpired(long dueAt, long now) {
+        return now - dueAt > retentionMs;
+    }
+
+    private static int home(int reminderId, long dueAt) {
+        long hash = (dueAt ^ ((long) reminderId << 32) ^ reminderId) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 56) & (SLOTS - 1);
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+}
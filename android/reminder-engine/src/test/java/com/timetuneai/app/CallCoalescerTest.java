@@ -0,0 +1,77 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Local unit tests for CallCoalescer.
+ */
+public class CallCoalescerTest {
+
+    @Test
+    public void queuedCalls_startOneSession() {
+        CallCoalescer<Integer> coalescer = new CallCoalescer<>(3);
+        List<Integer> session = new ArrayList<>();
+        assertEquals(-1, coalescer.drain(0, session));
+
+        for (int id = 1; id <= 500; id++) {
+            coalescer.add(id);
+        }
+        assertEquals(0, coalescer.drain(0, session));
+        assertEquals(500, session.size());
+        assertEquals(0, coalescer.queuedCount());
+        assertEquals(-1, coalescer.drain(0, new ArrayList<>()));
+    }
+
+    @Test
+    public void sessionsBeyondTheRateWait_andMergeWhileWaiting() {
+        CallCoalescer<Integer> coalescer = new CallCoalescer<>(2);
+        List<Integer> session = new ArrayList<>();
+        coalescer.add(1);
+        assertEquals(0, coalescer.drain(1000, session));
+        coalescer.add(2);
+        assertEquals(0, coalescer.drain(2000, session));
+
+        coalescer.add(3);
+        coalescer.add(4);
+        session.clear();
+        assertEquals(59000, coalescer.drain(2000, session));
+        assertTrue(session.isEmpty());
+        coalescer.add(5);
+        assertEquals(0, coalescer.drain(61000, session));
+        assertEquals(List.of(3, 4, 5), session);
+
+        // The slot freed at 62000 is the one taken at 2000
+        coalescer.add(6);
+        assertEquals(1000, coalescer.drain(61000, new ArrayList<>()));
+        assertEquals(0, coalescer.drain(62000, new ArrayList<>()));
+    }
+
+    @Test
+    public void heldSession_waitsForItsReadyTime() {
+        CallCoalescer<Integer> coalescer = new CallCoalescer<>(3);
+        List<Integer> session = new ArrayList<>();
+        // Another call is due soon: the first waits for it
+        coalescer.add(1);
+        coalescer.holdUntil(2000);
+        assertEquals(2000, coalescer.drain(0, session));
+        coalescer.add(2);
+        assertEquals(500, coalescer.drain(1500, session));
+        assertTrue(session.isEmpty());
+
+        // Nothing else is coming: the session starts at once
+        coalescer.holdUntil(Long.MIN_VALUE);
+        assertEquals(0, coalescer.drain(1500, session));
+        assertEquals(List.of(1, 2), session);
+
+        // The next session is not held by the last one's ready time
+        session.clear();
+        coalescer.add(3);
+        assertEquals(0, coalescer.drain(1600, session));
+        assertEquals(List.of(3), session);
+    }
+}
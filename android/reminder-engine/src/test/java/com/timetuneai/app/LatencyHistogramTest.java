@@ -0,0 +1,69 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Local unit tests for the persisted LatencyHistogram.
+ */
+public class LatencyHistogramTest {
+    private static final int STRATEGIES = 3;
+    private static final int STAGES = 6;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void percentiles_arePerStrategyAndStage() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram(folder.newFile(), STRATEGIES, STAGES);
+        for (int i = 0; i < 95; i++) {
+            histogram.record(0, 3, 40); // bucket [32, 64)
+        }
+        for (int i = 0; i < 5; i++) {
+            histogram.record(0, 3, 900); // bucket [512, 1024)
+        }
+        histogram.record(1, 3, 5000);
+
+        assertEquals(100, histogram.count(0, 3));
+        assertEquals(63, histogram.percentile(0, 3, 0.5));
+        assertEquals(63, histogram.percentile(0, 3, 0.95));
+        assertEquals(900, histogram.percentile(0, 3, 0.99));
+        assertEquals(5000, histogram.percentile(1, 3, 0.5));
+        assertEquals(0, histogram.percentile(2, 3, 0.5));
+        assertEquals(0, histogram.count(0, 2));
+        histogram.close();
+    }
+
+    @Test
+    public void samples_surviveReopen() throws Exception {
+        File path = new File(folder.getRoot(), "latency.bin");
+        LatencyHistogram histogram = new LatencyHistogram(path, STRATEGIES, STAGES);
+        histogram.record(2, 5, 120);
+        histogram.record(2, 5, -3);
+        histogram.close();
+
+        LatencyHistogram reopened = new LatencyHistogram(path, STRATEGIES, STAGES);
+        assertEquals(2, reopened.count(2, 5));
+        assertEquals(120, reopened.max(2, 5));
+        assertEquals(0, reopened.percentile(2, 5, 0.5));
+        reopened.close();
+    }
+
+    @Test
+    public void differentShape_startsEmptyAndHugeSamplesLandInLastBucket() throws Exception {
+        File path = new File(folder.getRoot(), "latency.bin");
+        LatencyHistogram histogram = new LatencyHistogram(path, STRATEGIES, STAGES);
+        histogram.record(0, 0, Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.percentile(0, 0, 0.5));
+        histogram.close();
+
+        LatencyHistogram reshaped = new LatencyHistogram(path, STRATEGIES, STAGES + 1);
+        assertEquals(0, reshaped.count(0, 0));
+        reshaped.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.timetuneai.app;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory ReminderEngine storage for JVM tests. Like ReminderRepository it
+ * keeps each reminder's next due time in an index that advanceRecurrence
+ * moves forward, so a reloaded engine sees the same state a restarted
+ * service would.
+ */
+class MemoryStorage implements ReminderEngine.Storage {
+    private final Map<Integer, ReminderRecord> records = new LinkedHashMap<>();
+    private final Map<Integer, Long> dueAt = new LinkedHashMap<>();
+    private long generation;
+
+    void put(ReminderRecord record) {
+        records.put(record.id, record);
+        dueAt.put(record.id, record.dueAt);
+        generation++;
+    }
+
+    void remove(int reminderId) {
+        records.remove(reminderId);
+        dueAt.remove(reminderId);
+        generation++;
+    }
+
+    int size() {
+        return records.size();
+    }
+
+    @Override
+    public void forEachRecord(ReminderStore.RecordVisitor visitor) {
+        for (ReminderRecord record : records.values()) {
+            int flags = ReminderStore.FLAG_LIVE;
+            if (record.isCompleted) {
+                flags |= ReminderStore.FLAG_COMPLETED;
+            }
+            if (record.isRecurring()) {
+                flags |= ReminderStore.FLAG_RECURRING;
+            }
+            visitor.visit(record.id, dueAt.get(record.id), flags);
+        }
+    }
+
+    @Override
+    public long advanceRecurrence(int reminderId, long pastDueAt, long now) {
+        ReminderRecord record = records.get(reminderId);
+        if (record == null || !record.isRecurring()) {
+            return -1;
+        }
+        long next = record.nextDueAt(Math.max(pastDueAt + 1, now - ReminderEngine.TRIGGER_WINDOW_MS));
+        dueAt.put(reminderId, next);
+        return next;
+    }
+
+    @Override
+    public ReminderRecord find(int reminderId) {
+        return records.get(reminderId);
+    }
+
+    @Override
+    public long generation() {
+        return generation;
+    }
+}
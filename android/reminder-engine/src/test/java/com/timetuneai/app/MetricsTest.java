@@ -0,0 +1,79 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Local unit tests for the Metrics registry.
+ */
+public class MetricsTest {
+
+    @Test
+    public void counters_accumulate() {
+        Metrics metrics = new Metrics();
+        metrics.increment(Metrics.CHECKS);
+        metrics.increment(Metrics.CHECKS);
+        metrics.add(Metrics.REMINDERS_SCANNED, 40);
+
+        assertEquals(2, metrics.counter(Metrics.CHECKS));
+        assertEquals(40, metrics.counter(Metrics.REMINDERS_SCANNED));
+        assertEquals(0, metrics.counter(Metrics.FAILURES));
+    }
+
+    @Test
+    public void percentiles_areBucketUpperBoundsCappedAtMax() {
+        Metrics metrics = new Metrics();
+        assertEquals(0, metrics.percentile(Metrics.DELIVERY_MS, 0.5));
+
+        for (int i = 0; i < 90; i++) {
+            metrics.record(Metrics.DELIVERY_MS, 100); // bucket [64, 128)
+        }
+        for (int i = 0; i < 10; i++) {
+            metrics.record(Metrics.DELIVERY_MS, 1500); // bucket [1024, 2048)
+        }
+        metrics.record(Metrics.DELIVERY_MS, -5); // clamped to 0
+
+        assertEquals(101, metrics.count(Metrics.DELIVERY_MS));
+        assertEquals(1500, metrics.max(Metrics.DELIVERY_MS));
+        assertEquals(127, metrics.percentile(Metrics.DELIVERY_MS, 0.5));
+        assertEquals(1500, metrics.percentile(Metrics.DELIVERY_MS, 0.99));
+        assertEquals(0, metrics.percentile(Metrics.DELIVERY_MS, 0));
+    }
+
+    @Test
+    public void snapshotJson_listsEveryMetric() {
+        Metrics metrics = new Metrics();
+        metrics.increment(Metrics.DELIVERIES_OVERLAY);
+        metrics.record(Metrics.CHECK_CPU_US, 250);
+
+        String json = metrics.snapshotJson();
+        assertTrue(json.startsWith("{\"counters\":{\"checks\":0,"));
+        assertTrue(json.contains("\"deliveriesOverlay\":1"));
+        assertTrue(json.contains("\"checkCpuUs\":{\"count\":1,\"sum\":250,\"max\":250,\"p50\":250,\"p90\":250,\"p99\":250}"));
+        assertTrue(json.endsWith("}}}"));
+    }
+
+    @Test
+    public void record_isSafeUnderConcurrentWriters() throws Exception {
+        final Metrics metrics = new Metrics();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final long value = t * 1000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    metrics.record(Metrics.PARSE_US, value);
+                    metrics.increment(Metrics.CHECKS);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(40000, metrics.count(Metrics.PARSE_US));
+        assertEquals(40000, metrics.counter(Metrics.CHECKS));
+        assertEquals(3000, metrics.max(Metrics.PARSE_US));
+    }
+}
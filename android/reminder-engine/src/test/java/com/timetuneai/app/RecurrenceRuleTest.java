@@ -0,0 +1,83 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+/**
+ * Local unit tests for RecurrenceRule occurrence generation. Rules are built
+ * directly, since org.json is only a stub in local unit tests.
+ */
+public class RecurrenceRuleTest {
+    private static final TimeZone ZONE = TimeZone.getTimeZone("Europe/Berlin");
+    private static final long NINE_AM = 9 * 60;
+
+    @Test
+    public void daily_startsAtFirstOccurrenceAndSkipsPassedTimeOfDay() {
+        RecurrenceRule rule = rule(RecurrenceRule.DAILY, "2026-01-05", Long.MAX_VALUE);
+
+        assertEquals(at("2026-01-05", "09:00"), rule.nextOccurrence(at("2025-12-01", "00:00")));
+        assertEquals(at("2026-01-05", "09:00"), rule.nextOccurrence(at("2026-01-05", "09:00")));
+        assertEquals(at("2026-01-06", "09:00"), rule.nextOccurrence(at("2026-01-05", "09:00") + 1));
+        // Years later costs the same and stays at 09:00 local across DST changes
+        assertEquals(at("2029-07-01", "09:00"), rule.nextOccurrence(at("2029-06-30", "10:00")));
+    }
+
+    @Test
+    public void weekly_keepsTheStartingWeekday() {
+        RecurrenceRule rule = rule(RecurrenceRule.WEEKLY, "2026-01-07", Long.MAX_VALUE); // Wednesday
+
+        assertEquals(at("2026-01-14", "09:00"), rule.nextOccurrence(at("2026-01-07", "09:01")));
+        assertEquals(at("2026-03-04", "09:00"), rule.nextOccurrence(at("2026-02-26", "12:00")));
+    }
+
+    @Test
+    public void weekdays_skipWeekends() {
+        RecurrenceRule rule = rule(RecurrenceRule.WEEKDAYS, "2026-01-05", Long.MAX_VALUE);
+
+        assertEquals(at("2026-01-09", "09:00"), rule.nextOccurrence(at("2026-01-09", "08:00"))); // Friday
+        assertEquals(at("2026-01-12", "09:00"), rule.nextOccurrence(at("2026-01-09", "10:00")));
+        assertEquals(at("2026-01-12", "09:00"), rule.nextOccurrence(at("2026-01-11", "23:00"))); // Sunday
+    }
+
+    @Test
+    public void monthly_clampsToShortMonths() {
+        RecurrenceRule rule = rule(RecurrenceRule.MONTHLY, "2026-01-31", Long.MAX_VALUE);
+
+        assertEquals(at("2026-02-28", "09:00"), rule.nextOccurrence(at("2026-02-01", "00:00")));
+        assertEquals(at("2026-03-31", "09:00"), rule.nextOccurrence(at("2026-02-28", "09:01")));
+        assertEquals(at("2028-02-29", "09:00"), rule.nextOccurrence(at("2028-02-10", "00:00")));
+    }
+
+    @Test
+    public void exceptionsAndEndDate_areHonoured() {
+        long[] exceptions = {DueTimes.toEpochDay("2026-01-06"), DueTimes.toEpochDay("2026-01-07")};
+        RecurrenceRule rule = new RecurrenceRule(RecurrenceRule.DAILY, DueTimes.toEpochDay("2026-01-05"),
+            NINE_AM, DueTimes.toEpochDay("2026-01-10"), exceptions, ZONE);
+
+        assertEquals(at("2026-01-08", "09:00"), rule.nextOccurrence(at("2026-01-05", "10:00")));
+        assertEquals(at("2026-01-10", "09:00"), rule.nextOccurrence(at("2026-01-09", "10:00")));
+        assertEquals(-1, rule.nextOccurrence(at("2026-01-10", "10:00")));
+    }
+
+    @Test
+    public void calendarHelpers_roundTrip() {
+        for (long day = DueTimes.toEpochDay("1999-01-01"); day < DueTimes.toEpochDay("2031-01-01"); day++) {
+            long month = DueTimes.monthIndex(day);
+            assertEquals(day, DueTimes.dayInMonth(month, DueTimes.dayOfMonth(day)));
+        }
+        assertEquals(0, DueTimes.dayOfWeek(DueTimes.toEpochDay("2026-01-05"))); // Monday
+        assertEquals(6, DueTimes.dayOfWeek(DueTimes.toEpochDay("2026-01-11"))); // Sunday
+        assertEquals(Long.MIN_VALUE, DueTimes.toEpochDay("2026-02-29"));
+    }
+
+    private static RecurrenceRule rule(int pattern, String firstDate, long endDay) {
+        return new RecurrenceRule(pattern, DueTimes.toEpochDay(firstDate), NINE_AM, endDay, new long[0], ZONE);
+    }
+
+    private static long at(String date, String time) {
+        return DueTimes.toEpochMillis(date, time, ZONE);
+    }
+}
@@ -0,0 +1,227 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Local unit tests for ReminderEngine under a hand-advanced clock.
+ */
+public class ReminderEngineTest {
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long MINUTE = DueTimes.MINUTE_MS;
+    private static final long T0 = DueTimes.toEpochMillis("2025-06-02", "09:00", UTC);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private long now = T0;
+    private final MemoryStorage storage = new MemoryStorage();
+    private final List<String> delivered = new ArrayList<>();
+    private final List<Integer> missed = new ArrayList<>();
+
+    private final ReminderEngine.Sink sink = new ReminderEngine.Sink() {
+        @Override
+        public void deliver(ReminderRecord reminder, long dueAt, long detectedAt) {
+            delivered.add(reminder.id + "@" + (dueAt - T0) / MINUTE);
+        }
+
+        @Override
+        public void onMissed(int reminderId, long dueAt, long now) {
+            missed.add(reminderId);
+        }
+    };
+
+    @Test
+    public void check_deliversOnlyWhatIsDue() {
+        storage.put(reminder(1, T0 + 5 * MINUTE, false, null));
+        storage.put(reminder(2, T0 + 10 * MINUTE, false, null));
+        storage.put(reminder(3, T0 + 1 * MINUTE, true, null));
+        ReminderEngine engine = engine(null);
+
+        assertEquals(2, engine.reload());
+        assertEquals(T0 + 5 * MINUTE, engine.nextDueAt());
+        assertEquals(0, engine.check());
+
+        now = T0 + 5 * MINUTE;
+        assertEquals(1, engine.check());
+        now = T0 + 11 * MINUTE;
+        engine.check();
+
+        assertEquals(List.of("1@5", "2@10"), delivered);
+        assertEquals(-1, engine.nextDueAt());
+    }
+
+    @Test
+    public void lateOccurrences_areReportedMissed() {
+        storage.put(reminder(1, T0 + MINUTE, false, null));
+        ReminderEngine engine = engine(null);
+        engine.reload();
+
+        now = T0 + MINUTE + ReminderEngine.TRIGGER_WINDOW_MS + 1;
+        assertEquals(0, engine.check());
+        assertEquals(List.of(1), missed);
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void recurringReminder_isQueuedAtItsNextOccurrence() {
+        storage.put(reminder(1, T0 + MINUTE, false, "daily"));
+        ReminderEngine engine = engine(null);
+        engine.reload();
+
+        now = T0 + MINUTE;
+        engine.check();
+        assertEquals(T0 + MINUTE + DueTimes.DAY_MS, engine.nextDueAt());
+
+        now += DueTimes.DAY_MS;
+        engine.check();
+        assertEquals(List.of("1@1", "1@1441"), delivered);
+    }
+
+    @Test
+    public void apply_movesTheHeadAndCompletedRemindersLeave() {
+        storage.put(reminder(1, T0 + 30 * MINUTE, false, null));
+        ReminderEngine engine = engine(null);
+        engine.reload();
+
+        assertTrue(engine.apply(reminder(2, T0 + 2 * MINUTE, false, null)));
+        assertEquals(T0 + 2 * MINUTE, engine.nextDueAt());
+        assertTrue(engine.apply(reminder(2, T0 + 2 * MINUTE, true, null)));
+        assertEquals(T0 + 30 * MINUTE, engine.nextDueAt());
+        assertTrue(engine.remove(1));
+        assertEquals(0, engine.size());
+    }
+
+    @Test
+    public void triggerLog_preventsRingingTwiceAcrossRestarts() throws Exception {
+        File logFile = new File(folder.getRoot(), "trigger_log.bin");
+        storage.put(reminder(1, T0 + MINUTE, false, null));
+
+        TriggerLog log = new TriggerLog(logFile, ReminderEngine.TRIGGER_WINDOW_MS);
+        ReminderEngine engine = engine(log);
+        engine.reload();
+        now = T0 + MINUTE;
+        engine.check();
+        log.close();
+
+        // A restarted host reloads the same occurrence within the window
+        now = T0 + MINUTE + 30000;
+        TriggerLog reopened = new TriggerLog(logFile, ReminderEngine.TRIGGER_WINDOW_MS);
+        ReminderEngine restarted = engine(reopened);
+        assertEquals(1, restarted.reload());
+        assertEquals(0, restarted.check());
+        assertEquals(List.of("1@1"), delivered);
+        reopened.close();
+    }
+
+    @Test
+    public void nextDueAt_scansStorageLikeReload() {
+        storage.put(reminder(1, T0 + 30 * MINUTE, false, null));
+        storage.put(reminder(2, T0 + 10 * MINUTE, true, null));
+        storage.put(reminder(3, T0 - 60 * MINUTE, false, null));
+        storage.put(reminder(4, T0 - 2 * 24 * 60 * MINUTE + 20 * MINUTE, false, "daily"));
+
+        // The daily reminder caught up to today is the earliest pending one
+        assertEquals(T0 + 20 * MINUTE, ReminderEngine.nextDueAt(storage, now));
+        ReminderEngine engine = engine(null);
+        engine.reload();
+        assertEquals(engine.nextDueAt(), ReminderEngine.nextDueAt(storage, now));
+        assertEquals(-1, ReminderEngine.nextDueAt(new MemoryStorage(), now));
+    }
+
+    @Test
+    public void resume_usesTheSnapshotUntilStorageChanges() throws Exception {
+        File path = folder.newFile();
+        storage.put(reminder(1, T0 + MINUTE, false, null));
+        storage.put(reminder(2, T0 + 10 * MINUTE, false, null));
+        EngineSnapshot snapshot = new EngineSnapshot(path);
+        ReminderEngine engine = new ReminderEngine(() -> now, storage, sink, null, snapshot, new Metrics());
+        assertFalse(engine.resume());
+        engine.reload();
+        now = T0 + MINUTE;
+        assertEquals(1, engine.check());
+        snapshot.close();
+
+        // Without a TriggerLog, only the saved check instant keeps reminder 1 from ringing again
+        snapshot = new EngineSnapshot(path);
+        Metrics metrics = new Metrics();
+        ReminderEngine resumed = new ReminderEngine(() -> now, storage, sink, null, snapshot, metrics);
+        assertTrue(resumed.resume());
+        assertEquals(T0 + 10 * MINUTE, resumed.nextDueAt());
+        assertEquals(0, metrics.counter(Metrics.REMINDERS_SCANNED));
+        assertEquals(0, resumed.check());
+        now = T0 + 10 * MINUTE;
+        assertEquals(1, resumed.check());
+        assertEquals(List.of("1@1", "2@10"), delivered);
+
+        storage.put(reminder(3, T0 + 20 * MINUTE, false, null));
+        assertFalse(new ReminderEngine(() -> now, storage, sink, null, snapshot, metrics).resume());
+        snapshot.close();
+    }
+
+    @Test
+    public void reload_ringsAReminderWrittenDueBeforeTheSavedCheck() throws Exception {
+        File path = folder.newFile();
+        TriggerLog log = new TriggerLog(folder.newFile(), ReminderEngine.TRIGGER_WINDOW_MS);
+        storage.put(reminder(1, T0 + MINUTE, false, null));
+        EngineSnapshot snapshot = new EngineSnapshot(path);
+        ReminderEngine engine = new ReminderEngine(() -> now, storage, sink, log, snapshot, new Metrics());
+        engine.reload();
+        now = T0 + MINUTE + 1000;
+        assertEquals(1, engine.check());
+        snapshot.close();
+
+        // Written while nothing was running, due a second before the saved check
+        storage.put(reminder(2, T0 + MINUTE, false, null));
+        now += 30000;
+        snapshot = new EngineSnapshot(path);
+        ReminderEngine restarted = new ReminderEngine(() -> now, storage, sink, log, snapshot, new Metrics());
+        assertFalse(restarted.resume());
+        restarted.reload();
+        assertEquals(1, restarted.check());
+        assertEquals(List.of("1@1", "2@1"), delivered);
+        assertTrue(missed.isEmpty());
+        snapshot.close();
+        log.close();
+    }
+
+    @Test
+    public void prerollRemaining_onlyInsideTheLead() {
+        storage.put(reminder(1, T0 + MINUTE, false, null));
+        ReminderEngine engine = engine(null);
+        engine.reload();
+
+        assertEquals(-1, engine.prerollRemaining());
+        int[] ids = new int[4];
+        long[] dueTimes = new long[4];
+        assertEquals(0, engine.upcoming(ids, dueTimes));
+        now = T0 + MINUTE - 3000;
+        assertEquals(3000, engine.prerollRemaining());
+        assertEquals(1, engine.upcoming(ids, dueTimes));
+        assertEquals(1, ids[0]);
+        assertEquals(T0 + MINUTE, dueTimes[0]);
+    }
+
+    private ReminderEngine engine(TriggerLog log) {
+        return new ReminderEngine(() -> now, storage, sink, log, new Metrics());
+    }
+
+    private static ReminderRecord reminder(int id, long dueAt, boolean completed, String pattern) {
+        RecurrenceRule rule = null;
+        if (pattern != null) {
+            long day = Math.floorDiv(dueAt, DueTimes.DAY_MS);
+            long minuteOfDay = Math.floorMod(dueAt, DueTimes.DAY_MS) / MINUTE;
+            rule = new RecurrenceRule(RecurrenceRule.patternCode(pattern), day, minuteOfDay,
+                Long.MAX_VALUE, new long[0], UTC);
+        }
+        return new ReminderRecord(id, "Reminder " + id, "", "", "", completed, dueAt, rule);
+    }
+}
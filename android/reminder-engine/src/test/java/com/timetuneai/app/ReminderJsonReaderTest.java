@@ -0,0 +1,120 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Local unit tests for ReminderJsonReader against a real ReminderStore.
+ */
+public class ReminderJsonReaderTest {
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long FROM = DueTimes.toEpochMillis("2025-06-02", "12:00", UTC);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ReminderStore store;
+    private File staging;
+
+    @Before
+    public void setUp() throws IOException {
+        store = new ReminderStore(folder.newFolder());
+        staging = new File(folder.getRoot(), "staging");
+    }
+
+    @Test
+    public void read_parsesNestedObjectsAndEscapedStrings() throws IOException {
+        String json = "[{\"id\":1,\"title\":\"Call \\\"Mom\\\"\\n\\u00e9\\\\\","
+            + "\"meta\":{\"tags\":[\"a\",{\"b\":[1,2.5,null]}],\"owner\":{\"name\":\"x\"}}},"
+            + " {\"id\":2,\"title\":\"]},[{\"}]";
+        List<JSONObject> reminders = new ArrayList<>();
+
+        assertEquals(2, ReminderJsonReader.read(json, reminders::add));
+        assertEquals("Call \"Mom\"\né\\", reminders.get(0).getString("title"));
+        JSONObject meta = reminders.get(0).getJSONObject("meta");
+        assertEquals(2.5, meta.getJSONArray("tags").getJSONObject(1).getJSONArray("b").getDouble(1), 0);
+        assertEquals("x", meta.getJSONObject("owner").getString("name"));
+        assertEquals("]},[{", reminders.get(1).getString("title"));
+    }
+
+    @Test
+    public void ingest_keepsUnknownFieldsAndIndexesKnownOnes() throws IOException {
+        String json = "[{\"id\":\"7\",\"title\":\"Stand-up\",\"date\":\"2025-06-03\",\"time\":\"09:30\","
+            + "\"priority\":\"high\",\"category\":\"work\",\"isCompleted\":true,"
+            + "\"attachments\":[{\"name\":\"notes.txt\"}],\"color\":\"#ff0\"},"
+            + "{\"id\":8,\"date\":\"2025-06-01\",\"time\":\"08:00\",\"isRecurring\":true,"
+            + "\"recurrencePattern\":\"daily\",\"snoozeCount\":3}]";
+
+        assertEquals(2, ReminderJsonReader.replace(store, staging, json, UTC, FROM));
+        assertEquals(DueTimes.toEpochMillis("2025-06-03", "09:30", UTC), store.dueAt(7));
+        assertEquals(ReminderStore.FLAG_COMPLETED, store.flags(7) & ~ReminderStore.FLAG_LIVE);
+        JSONObject stored = new JSONObject(store.readText(7));
+        assertEquals("notes.txt", stored.getJSONArray("attachments").getJSONObject(0).getString("name"));
+        assertEquals("#ff0", stored.getString("color"));
+
+        // A recurring reminder is indexed at its next occurrence
+        assertEquals(ReminderStore.FLAG_RECURRING, store.flags(8) & ~ReminderStore.FLAG_LIVE);
+        assertEquals(DueTimes.toEpochMillis("2025-06-03", "08:00", UTC), store.dueAt(8));
+        assertEquals(3, new JSONObject(store.readText(8)).getInt("snoozeCount"));
+    }
+
+    @Test
+    public void replace_malformedInputLeavesTheStoreUnchanged() throws IOException {
+        ReminderJsonReader.replace(store, staging, "[{\"id\":1,\"title\":\"One\"},{\"id\":2,\"title\":\"Two\"}]",
+            UTC, FROM);
+        store.put(2, -1, 0, ReminderStore.PRIORITY_MEDIUM, ReminderStore.CATEGORY_PERSONAL, 5,
+            "{\"id\":2,\"title\":\"Two\"}");
+        String[] malformed = {
+            "",
+            "{\"id\":3}",
+            "[{\"id\":3}",
+            "[{\"id\":3},]",
+            "[{\"id\":3} {\"id\":4}]",
+            "[{\"id\":3},42]",
+            "[{\"id\":3,\"title\":\"unterminated}]",
+            "[{\"id\":3}] trailing",
+        };
+        for (String json : malformed) {
+            try {
+                ReminderJsonReader.replace(store, staging, json, UTC, FROM);
+                fail("Accepted " + json);
+            } catch (IOException expected) {
+                // The store must not have been cleared
+            }
+            assertFalse(staging.exists());
+            assertEquals(2, store.size());
+            assertEquals("One", new JSONObject(store.readText(1)).getString("title"));
+            assertEquals(5, store.version(2));
+        }
+    }
+
+    @Test
+    public void replace_keepsVersionsOfRemindersStillPresent() throws IOException {
+        ReminderJsonReader.put(store, new JSONObject("{\"id\":1,\"title\":\"Old\"}"), 9, UTC, FROM);
+        ReminderJsonReader.put(store, new JSONObject("{\"id\":2,\"title\":\"Gone\"}"), 4, UTC, FROM);
+
+        ReminderJsonReader.replace(store, staging, "[{\"id\":1,\"title\":\"New\"},{\"id\":3,\"title\":\"Added\"}]",
+            UTC, FROM);
+        assertEquals(2, store.size());
+        assertEquals(9, store.version(1));
+        assertEquals("New", new JSONObject(store.readText(1)).getString("title"));
+        assertFalse(store.contains(2));
+        assertEquals(0, store.version(3));
+    }
+
+    @Test
+    public void read_emptyArrayVisitsNothing() throws IOException {
+        assertEquals(0, ReminderJsonReader.read(" [ ] ", reminder -> fail()));
+    }
+}
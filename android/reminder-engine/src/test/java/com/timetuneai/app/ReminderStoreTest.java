@@ -0,0 +1,85 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Local unit tests for ReminderStore's text segments and compaction.
+ */
+public class ReminderStoreTest {
+    private static final long DUE_AT = 1767225600000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void compaction_keepsTextReadableAcrossSegments() throws Exception {
+        File directory = folder.newFolder();
+        ReminderStore store = new ReminderStore(directory);
+        // Rewriting every reminder many times compacts the text several times over
+        for (int version = 1; version <= 20; version++) {
+            for (int id = 1; id <= 50; id++) {
+                store.put(id, DUE_AT, 0, ReminderStore.PRIORITY_MEDIUM, ReminderStore.CATEGORY_PERSONAL,
+                    version, json(id, version));
+            }
+        }
+        assertText(store, 20);
+        store.close();
+
+        ReminderStore reopened = new ReminderStore(directory);
+        assertEquals(50, reopened.size());
+        assertText(reopened, 20);
+        reopened.close();
+        String[] files = directory.list();
+        Arrays.sort(files);
+        assertEquals(2, files.length);
+        assertEquals("index.bin", files[0]);
+        assertNotEquals("text.bin", files[1]);
+    }
+
+    @Test
+    public void reopen_dropsTheSegmentOfAnInterruptedCompaction() throws Exception {
+        File directory = folder.newFolder();
+        ReminderStore store = new ReminderStore(directory);
+        for (int id = 1; id <= 50; id++) {
+            store.put(id, DUE_AT, 0, ReminderStore.PRIORITY_MEDIUM, ReminderStore.CATEGORY_PERSONAL,
+                1, json(id, 1));
+        }
+        store.close();
+        // As left by a crash before the header switched to the new segment
+        File partial = new File(directory, "text.1.bin");
+        Files.write(partial.toPath(), new byte[4096]);
+
+        ReminderStore reopened = new ReminderStore(directory);
+        assertFalse(partial.exists());
+        assertText(reopened, 1);
+        for (int version = 2; version <= 10; version++) {
+            for (int id = 1; id <= 50; id++) {
+                reopened.put(id, DUE_AT, 0, ReminderStore.PRIORITY_MEDIUM, ReminderStore.CATEGORY_PERSONAL,
+                    version, json(id, version));
+            }
+        }
+        assertText(reopened, 10);
+        reopened.close();
+    }
+
+    private static void assertText(ReminderStore store, int version) throws Exception {
+        for (int id = 1; id <= 50; id++) {
+            assertEquals(json(id, version), store.readText(id));
+        }
+    }
+
+    // About a kilobyte per reminder, so churn passes the compaction threshold quickly
+    private static String json(int id, int version) {
+        char[] padding = new char[1000];
+        Arrays.fill(padding, (char) ('a' + id % 26));
+        return "{\"id\":" + id + ",\"version\":" + version + ",\"description\":\"" + new String(padding) + "\"}";
+    }
+}
@@ -0,0 +1,397 @@
+package com.timetuneai.app;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Replays a synthetic stretch of time through ReminderEngine on a virtual
+ * clock, hosted the way ReminderBackgroundService hosts it: the host wakes
+ * at the earliest due time (plus some alarm delivery latency), checks, and
+ * applies edits as they arrive. Along the way reminders are rescheduled and
+ * deleted, and the host is restarted with only its storage, TriggerLog and
+ * EngineSnapshot carried over, resuming from the snapshot when it can.
+ * In low-power mode the host also stops whenever nothing is due within the
+ * idle window, the way ReminderBackgroundService does, and the share of
+ * time it stays resident is reported.
+ *
+ * Every version of every reminder is remembered, so at the end the
+ * occurrences that should have rung can be compared with those delivered.
+ * CPU time spent in the engine is measured on the calling thread and
+ * bucketed by simulated hour.
+ */
+class ReplayHarness {
+    static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long MINUTE = DueTimes.MINUTE_MS;
+    private static final long HOUR = DueTimes.HOUR_MS;
+
+    static class Config {
+        long start = DueTimes.toEpochMillis("2025-06-02", "00:00", UTC);
+        long durationMs = DueTimes.DAY_MS;
+        int reminders = 100000;
+        // Share of reminders due on the hour or half hour, the rest spread evenly
+        double clustered = 0.5;
+        double recurring = 0.1;
+        double completed = 0.05;
+        long editIntervalMs = 7 * MINUTE + 13000;
+        // Edits that delete rather than reschedule
+        double deletes = 0.2;
+        // Reschedules to a minute or two before the edit, still inside the trigger window
+        double pastDueEdits = 0;
+        long restartIntervalMs = 5 * HOUR + 17 * MINUTE;
+        // Added to the first restart only, to place restarts relative to the clusters
+        long restartOffsetMs = 0;
+        long restartDowntimeMs = 45000;
+        long maxAlarmLatencyMs = 2000;
+        // Low-power mode when positive: stop while nothing is due within this window
+        long idleWindowMs = 0;
+        long idleCheckDelayMs = 30000;
+        long seed = 42;
+    }
+
+    static class Report {
+        int expected;
+        int delivered;
+        int missed;
+        int duplicates;
+        // Delivered occurrences no version of the reminder had
+        int spurious;
+        int restarts;
+        // Restarts that resumed from the snapshot instead of reloading
+        int resumes;
+        int edits;
+        // Alarms that woke the host to check, or to start it again in low-power mode
+        int wakeups;
+        // Low-power stops, and the share of the run the host was up
+        int stops;
+        double residentShare;
+        long latenessP50;
+        long latenessP90;
+        long latenessP99;
+        long latenessMax;
+        double cpuMsPerHour;
+        double cpuMsMaxHour;
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                "expected %d, delivered %d, missed %d, duplicates %d, spurious %d (%d edits, %d restarts, %d resumed)%n"
+                    + "  %d wake-ups%n"
+                    + "  lateness ms p50 %d, p90 %d, p99 %d, max %d%n"
+                    + "  engine cpu ms per simulated hour: mean %.2f, max %.2f%n"
+                    + "  resident %.1f%% of the time (%d low-power stops)",
+                expected, delivered, missed, duplicates, spurious, edits, restarts, resumes, wakeups,
+                latenessP50, latenessP90, latenessP99, latenessMax, cpuMsPerHour, cpuMsMaxHour,
+                residentShare * 100, stops);
+        }
+    }
+
+    // One version of a reminder, in effect from its edit time until the next one
+    private static class Version {
+        final long from;
+        final ReminderRecord record;
+
+        Version(long from, ReminderRecord record) {
+            this.from = from;
+            this.record = record;
+        }
+    }
+
+    private final Config config;
+    private final File triggerLogFile;
+    private final File snapshotFile;
+    private final Random random;
+    private final MemoryStorage storage = new MemoryStorage();
+    private final Map<Integer, List<Version>> history = new HashMap<>();
+    private final List<Integer> editable = new ArrayList<>();
+    private final Map<Long, Integer> deliveries = new HashMap<>();
+    private final List<Long> lateness = new ArrayList<>();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private long[] cpuNanosByHour;
+    private long now;
+    // While the host is stopped, the due time its alarm is armed for
+    private long idleAlarmFor = -1;
+
+    private final ReminderEngine.Sink sink = new ReminderEngine.Sink() {
+        @Override
+        public void deliver(ReminderRecord reminder, long dueAt, long detectedAt) {
+            deliveries.merge(key(reminder.id, dueAt), 1, Integer::sum);
+            lateness.add(detectedAt - dueAt);
+        }
+
+        @Override
+        public void onMissed(int reminderId, long dueAt, long now) {
+        }
+    };
+
+    ReplayHarness(Config config, File triggerLogFile, File snapshotFile) {
+        this.config = config;
+        this.triggerLogFile = triggerLogFile;
+        this.snapshotFile = snapshotFile;
+        this.random = new Random(config.seed);
+    }
+
+    Report run() throws IOException {
+        long end = config.start + config.durationMs;
+        cpuNanosByHour = new long[(int) ((config.durationMs + HOUR - 1) / HOUR)];
+        now = config.start;
+        for (int id = 1; id <= config.reminders; id++) {
+            ReminderRecord record = randomReminder(id, config.start + MINUTE, end);
+            storage.put(record);
+            history.computeIfAbsent(id, k -> new ArrayList<>()).add(new Version(now, record));
+            if (!record.isRecurring()) {
+                editable.add(id);
+            }
+        }
+
+        Report report = new Report();
+        TriggerLog triggerLog = new TriggerLog(triggerLogFile, ReminderEngine.TRIGGER_WINDOW_MS);
+        EngineSnapshot snapshot = new EngineSnapshot(snapshotFile);
+        ReminderEngine engine = startEngine(triggerLog, snapshot, report);
+        long nextEditAt = config.start + config.editIntervalMs;
+        long nextRestartAt = config.start + config.restartOffsetMs + config.restartIntervalMs;
+        boolean lowPower = config.idleWindowMs > 0;
+        long idleCheckAt = lowPower ? now + config.idleCheckDelayMs : Long.MAX_VALUE;
+        long residentSince = now;
+        long residentMs = 0;
+        // Long.MIN_VALUE forces the next alarm to be drawn
+        long armedFor = Long.MIN_VALUE;
+        long wakeAt = Long.MAX_VALUE;
+
+        while (true) {
+            // engine is null while the host is stopped in low-power mode
+            long alarmFor = engine != null ? engine.nextDueAt() : idleAlarmFor;
+            if (alarmFor != armedFor) {
+                // A new alarm: draw its delivery latency once. A stopped host is
+                // woken for the pre-roll, a running one checks at the due time
+                armedFor = alarmFor;
+                long alarmAt = engine != null ? alarmFor : alarmFor - ReminderEngine.PREROLL_LEAD_MS;
+                wakeAt = alarmFor < 0 ? Long.MAX_VALUE
+                    : Math.max(now, alarmAt + (long) (random.nextDouble() * config.maxAlarmLatencyMs));
+            }
+            long next = Math.min(Math.min(wakeAt, idleCheckAt), Math.min(nextEditAt, nextRestartAt));
+            if (next >= end) {
+                break;
+            }
+            now = next;
+
+            if (next == nextRestartAt) {
+                nextRestartAt += config.restartIntervalMs;
+                if (engine == null) {
+                    // Nothing running to restart
+                    continue;
+                }
+                triggerLog.close();
+                snapshot.close();
+                now += config.restartDowntimeMs;
+                triggerLog = new TriggerLog(triggerLogFile, ReminderEngine.TRIGGER_WINDOW_MS);
+                snapshot = new EngineSnapshot(snapshotFile);
+                engine = startEngine(triggerLog, snapshot, report);
+                idleCheckAt = lowPower ? now + config.idleCheckDelayMs : Long.MAX_VALUE;
+                armedFor = Long.MIN_VALUE;
+                report.restarts++;
+            } else if (next == nextEditAt) {
+                if (edit(engine, end) && engine != null) {
+                    timed(engine::check);
+                    idleCheckAt = lowPower ? now + config.idleCheckDelayMs : Long.MAX_VALUE;
+                }
+                nextEditAt += config.editIntervalMs;
+                report.edits++;
+            } else if (next == idleCheckAt) {
+                idleCheckAt = Long.MAX_VALUE;
+                if (engine.isIdleFor(config.idleWindowMs)) {
+                    idleAlarmFor = engine.nextDueAt();
+                    triggerLog.close();
+                    snapshot.close();
+                    engine = null;
+                    residentMs += now - residentSince;
+                    armedFor = Long.MIN_VALUE;
+                    report.stops++;
+                }
+            } else if (engine == null) {
+                // The alarm starts the host again
+                report.wakeups++;
+                triggerLog = new TriggerLog(triggerLogFile, ReminderEngine.TRIGGER_WINDOW_MS);
+                snapshot = new EngineSnapshot(snapshotFile);
+                engine = startEngine(triggerLog, snapshot, report);
+                residentSince = now;
+                idleCheckAt = now + config.idleCheckDelayMs;
+                armedFor = Long.MIN_VALUE;
+            } else {
+                report.wakeups++;
+                timed(engine::check);
+                idleCheckAt = lowPower ? now + config.idleCheckDelayMs : Long.MAX_VALUE;
+                armedFor = Long.MIN_VALUE;
+            }
+        }
+        if (engine != null) {
+            residentMs += end - residentSince;
+            triggerLog.close();
+            snapshot.close();
+        }
+        report.residentShare = (double) residentMs / config.durationMs;
+
+        summarize(report, end);
+        return report;
+    }
+
+    // Resumes in constant time when the snapshot allows; the first wake-up then loads the index
+    private ReminderEngine startEngine(TriggerLog triggerLog, EngineSnapshot snapshot, Report report) {
+        ReminderEngine engine = new ReminderEngine(() -> now, storage, sink, triggerLog, snapshot, new Metrics());
+        if (timed(engine::resume)) {
+            report.resumes++;
+        } else {
+            timed(engine::reload);
+            timed(engine::check);
+        }
+        return engine;
+    }
+
+    /**
+     * Reschedules or deletes a one-off reminder; returns whether the engine's
+     * head moved. With the host stopped (a null engine) only storage changes,
+     * and the alarm is pulled in as LowPowerController would.
+     */
+    private boolean edit(ReminderEngine engine, long end) {
+        int id = editable.get(random.nextInt(editable.size()));
+        ReminderRecord record = null;
+        boolean headMoved = false;
+        if (random.nextDouble() < config.deletes) {
+            storage.remove(id);
+            if (engine != null) {
+                long headBefore = engine.nextDueAt();
+                engine.remove(id);
+                headMoved = engine.nextDueAt() != headBefore;
+            }
+        } else {
+            long dueAt = now - now % MINUTE;
+            dueAt += random.nextDouble() < config.pastDueEdits ? -MINUTE : (1 + random.nextInt(180)) * MINUTE;
+            record = new ReminderRecord(id, "Reminder " + id, "", "", "", false, Math.min(dueAt, end), null);
+            storage.put(record);
+            final ReminderRecord applied = record;
+            if (engine != null) {
+                headMoved = timed(() -> engine.apply(applied));
+            } else if (idleAlarmFor < 0 || applied.dueAt < idleAlarmFor) {
+                idleAlarmFor = applied.dueAt;
+            }
+        }
+        history.get(id).add(new Version(now, record));
+        return headMoved;
+    }
+
+    private ReminderRecord randomReminder(int id, long from, long end) {
+        long dueAt = from + random.nextInt((int) ((end - from) / MINUTE)) * MINUTE;
+        if (random.nextDouble() < config.clustered) {
+            long aligned = dueAt + Math.floorMod(-dueAt, 30 * MINUTE);
+            dueAt = aligned < end ? aligned : dueAt - Math.floorMod(dueAt, 30 * MINUTE);
+        }
+        boolean completed = random.nextDouble() < config.completed;
+        RecurrenceRule rule = null;
+        if (random.nextDouble() < config.recurring) {
+            int pattern = random.nextBoolean() ? RecurrenceRule.DAILY : RecurrenceRule.WEEKLY;
+            rule = new RecurrenceRule(pattern, Math.floorDiv(dueAt, DueTimes.DAY_MS),
+                Math.floorMod(dueAt, DueTimes.DAY_MS) / MINUTE, Long.MAX_VALUE, new long[0], UTC);
+        }
+        return new ReminderRecord(id, "Reminder " + id, "", "", "", completed, dueAt, rule);
+    }
+
+    private void summarize(Report report, long end) {
+        // Occurrences in the last window may legitimately not have rung yet
+        long cutoff = end - ReminderEngine.TRIGGER_WINDOW_MS;
+        Set<Long> expected = new HashSet<>();
+        for (Map.Entry<Integer, List<Version>> entry : history.entrySet()) {
+            List<Version> versions = entry.getValue();
+            for (int v = 0; v < versions.size(); v++) {
+                ReminderRecord record = versions.get(v).record;
+                if (record == null || record.isCompleted) {
+                    continue;
+                }
+                long from = versions.get(v).from;
+                long to = v + 1 < versions.size() ? versions.get(v + 1).from : end;
+                for (long dueAt = record.nextDueAt(from); dueAt > 0 && dueAt < Math.min(to, cutoff);
+                        dueAt = record.isRecurring() ? record.nextDueAt(dueAt + 1) : -1) {
+                    expected.add(key(entry.getKey(), dueAt));
+                }
+            }
+        }
+
+        report.expected = expected.size();
+        for (Map.Entry<Long, Integer> delivery : deliveries.entrySet()) {
+            if (dueAtOf(delivery.getKey()) >= cutoff) {
+                continue;
+            }
+            report.delivered++;
+            report.duplicates += delivery.getValue() - 1;
+            if (!expected.contains(delivery.getKey())) {
+                report.spurious++;
+            }
+        }
+        for (Long occurrence : expected) {
+            if (!deliveries.containsKey(occurrence)) {
+                report.missed++;
+            }
+        }
+
+        long[] sorted = new long[lateness.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = lateness.get(i);
+        }
+        Arrays.sort(sorted);
+        report.latenessP50 = percentile(sorted, 0.5);
+        report.latenessP90 = percentile(sorted, 0.9);
+        report.latenessP99 = percentile(sorted, 0.99);
+        report.latenessMax = sorted.length > 0 ? sorted[sorted.length - 1] : 0;
+
+        long total = 0;
+        long max = 0;
+        for (long nanos : cpuNanosByHour) {
+            total += nanos;
+            max = Math.max(max, nanos);
+        }
+        report.cpuMsPerHour = total / 1e6 / cpuNanosByHour.length;
+        report.cpuMsMaxHour = max / 1e6;
+    }
+
+    private void timed(Runnable work) {
+        timed(() -> {
+            work.run();
+            return true;
+        });
+    }
+
+    private boolean timed(BooleanSupplier work) {
+        long started = threads.getCurrentThreadCpuTime();
+        boolean result = work.getAsBoolean();
+        int hour = (int) Math.min((now - config.start) / HOUR, cpuNanosByHour.length - 1);
+        cpuNanosByHour[hour] += threads.getCurrentThreadCpuTime() - started;
+        return result;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    // Occurrences are keyed by id and due minute, which fits in one long
+    private long key(int id, long dueAt) {
+        return ((long) id << 32) | ((dueAt - config.start) / MINUTE);
+    }
+
+    private long dueAtOf(long key) {
+        return config.start + (key & 0xffffffffL) * MINUTE;
+    }
+}
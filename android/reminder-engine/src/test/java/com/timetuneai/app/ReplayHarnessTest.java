@@ -0,0 +1,108 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Scheduler throughput and trigger accuracy over simulated days. Besides
+ * missed and repeated calls, each run bounds how often the host wakes and
+ * how late calls ring, so a scheduler that polls or drifts fails.
+ */
+public class ReplayHarnessTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void day_of100kReminders() throws Exception {
+        ReplayHarness.Config config = new ReplayHarness.Config();
+        ReplayHarness.Report report = new ReplayHarness(config, folder.newFile(), folder.newFile()).run();
+        assertTrue(report.expected > 0);
+        assertDeliveredOnce(report);
+        assertOnTime(config, report);
+        assertEquals(report.restarts, report.resumes);
+    }
+
+    @Test
+    public void week_of100kReminders() throws Exception {
+        ReplayHarness.Config config = new ReplayHarness.Config();
+        config.durationMs = 7 * DueTimes.DAY_MS;
+        ReplayHarness.Report report = new ReplayHarness(config, folder.newFile(), folder.newFile()).run();
+        assertDeliveredOnce(report);
+        assertOnTime(config, report);
+        assertEquals(report.restarts, report.resumes);
+    }
+
+    @Test
+    public void lowPowerMode_stopsBetweenSparseReminders() throws Exception {
+        // A few hundred reminders over a week, as a typical user has them
+        ReplayHarness.Config config = new ReplayHarness.Config();
+        config.durationMs = 7 * DueTimes.DAY_MS;
+        config.reminders = 300;
+        config.editIntervalMs = 2 * DueTimes.HOUR_MS + 13000;
+        ReplayHarness.Report alwaysOn = new ReplayHarness(config, folder.newFile(), folder.newFile()).run();
+        config.idleWindowMs = 15 * DueTimes.MINUTE_MS;
+        ReplayHarness.Report report = new ReplayHarness(config, folder.newFile(), folder.newFile()).run();
+
+        assertDeliveredOnce(alwaysOn);
+        assertEquals(1.0, alwaysOn.residentShare, 1e-9);
+        assertEquals(0, alwaysOn.stops);
+        // Alarm-driven: no more wake-ups than calls to ring
+        assertTrue(alwaysOn.wakeups + " wake-ups", alwaysOn.wakeups <= alwaysOn.expected);
+
+        assertDeliveredOnce(report);
+        assertOnTime(config, report);
+        assertTrue(report.stops > 0);
+        assertTrue(report.residentShare < 0.5);
+        // At most the pre-roll wake and the due-time check per call
+        assertTrue(report.wakeups + " wake-ups", report.wakeups <= 2 * report.expected);
+    }
+
+    @Test
+    public void lowPowerMode_ringsRemindersEditedToThePast() throws Exception {
+        // Edits while the host is stopped, due before its last check
+        ReplayHarness.Config config = new ReplayHarness.Config();
+        config.reminders = 300;
+        config.editIntervalMs = 97000;
+        config.deletes = 0;
+        config.pastDueEdits = 0.5;
+        config.idleWindowMs = 15 * DueTimes.MINUTE_MS;
+        ReplayHarness.Report report = new ReplayHarness(config, folder.newFile(), folder.newFile()).run();
+
+        assertTrue(report.edits > 0);
+        assertDeliveredOnce(report);
+        assertTrue(report.stops > 0);
+    }
+
+    @Test
+    public void restartsRightAfterClusters() throws Exception {
+        // Every restart lands 70s after a cluster of about a thousand reminders,
+        // far more than TriggerLog holds, inside the window they could ring again
+        ReplayHarness.Config config = new ReplayHarness.Config();
+        config.restartIntervalMs = 30 * DueTimes.MINUTE_MS;
+        config.restartOffsetMs = 70000;
+        config.restartDowntimeMs = 10000;
+        ReplayHarness.Report report = new ReplayHarness(config, folder.newFile(), folder.newFile()).run();
+        assertTrue(report.restarts > 0);
+        assertEquals(report.restarts, report.resumes);
+        assertDeliveredOnce(report);
+        assertOnTime(config, report);
+    }
+
+    // Every expected occurrence rang exactly once, and nothing else did
+    private static void assertDeliveredOnce(ReplayHarness.Report report) {
+        assertEquals(report.toString(), 0, report.missed);
+        assertEquals(report.toString(), 0, report.duplicates);
+        assertEquals(report.toString(), 0, report.spurious);
+        assertEquals(report.toString(), report.expected, report.delivered);
+    }
+
+    // Calls ring within the alarm latency, and the host wakes at most once per simulated minute
+    private static void assertOnTime(ReplayHarness.Config config, ReplayHarness.Report report) {
+        assertTrue(report.toString(), report.latenessP99 <= config.maxAlarmLatencyMs);
+        assertTrue(report.toString(), report.wakeups <= config.durationMs / DueTimes.MINUTE_MS);
+    }
+}
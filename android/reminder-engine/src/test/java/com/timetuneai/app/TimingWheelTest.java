@@ -0,0 +1,334 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Local unit tests for the due-check path: due time parsing, the
+ * TimingWheel, and how much a day of ReminderEngine checks allocates.
+ * Timings against a linear scan are in DueCheckDayBenchmark under
+ * :benchmarks.
+ */
+public class TimingWheelTest {
+    private static final int REMINDERS = 10000;
+    private static final long START = 1767225600000L; // 2026-01-01T00:00:00Z
+    private static final long WINDOW_MS = 2 * DueTimes.MINUTE_MS;
+    // Reminders due during the measured day, whatever the total
+    private static final int DUE_TODAY = 200;
+    // Allocation allowed for a whole day of checks, far below one object per reminder
+    private static final long DAY_ALLOCATION_BOUND = 16 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void dueTimes_matchSimpleDateFormat() throws Exception {
+        TimeZone zone = TimeZone.getTimeZone("Europe/Berlin");
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US);
+        format.setTimeZone(zone);
+        format.setLenient(false);
+
+        String[][] samples = {
+            {"2026-01-01", "00:00"},
+            {"2026-02-28", "23:59"},
+            {"2028-02-29", "12:30"},
+            {"2026-03-29", "03:15"}, // after the spring-forward gap
+            {"2026-10-25", "02:30"}, // inside the repeated autumn hour
+            {"1999-12-31", "23:59"},
+        };
+        for (String[] sample : samples) {
+            long expected = format.parse(sample[0] + " " + sample[1]).getTime();
+            assertEquals(sample[0] + " " + sample[1], expected,
+                DueTimes.toEpochMillis(sample[0], sample[1], zone));
+        }
+    }
+
+    @Test
+    public void dueTimes_rejectMalformedInput() {
+        TimeZone utc = TimeZone.getTimeZone("UTC");
+        assertEquals(-1, DueTimes.toEpochMillis("", "10:00", utc));
+        assertEquals(-1, DueTimes.toEpochMillis("2026-02-30", "10:00", utc));
+        assertEquals(-1, DueTimes.toEpochMillis("2026-13-01", "10:00", utc));
+        assertEquals(-1, DueTimes.toEpochMillis("2026-01-01", "24:00", utc));
+        assertEquals(-1, DueTimes.toEpochMillis("2026/01/01", "10:00", utc));
+        assertEquals(-1, DueTimes.toEpochMillis("2026-01-01", "1a:00", utc));
+        assertEquals(START + 10 * DueTimes.HOUR_MS + 5000,
+            DueTimes.toEpochMillis("2026-01-01", "10:00:05", utc));
+    }
+
+    @Test
+    public void pollDue_collectsDueEntries() {
+        TimingWheel wheel = new TimingWheel(START, 4);
+        wheel.add(1, START + 3000);
+        wheel.add(2, START + 1000);
+        wheel.add(3, START - 10000);
+        wheel.add(4, START + 2000);
+        wheel.add(5, START + 60000);
+        wheel.add(2, START + 500); // moved earlier
+        assertTrue(wheel.remove(4));
+        assertFalse(wheel.remove(42));
+        assertEquals(START - 10000, wheel.peekDueAt());
+
+        int[] ids = new int[2];
+        long[] dueTimes = new long[2];
+        assertEquals(2, wheel.pollDue(START + 5000, ids, dueTimes));
+        assertEquals(3, ids[0]);
+        assertEquals(START - 10000, dueTimes[0]);
+        assertEquals(1, wheel.pollDue(START + 5000, ids, dueTimes));
+        assertEquals(0, wheel.pollDue(START + 5000, ids, dueTimes));
+        assertEquals(START + 60000, wheel.peekDueAt());
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void peekDue_looksAcrossUncascadedBoundaries() {
+        // A day before midnight, so the entry after midnight lands in the day tier
+        long midnight = START + DueTimes.DAY_MS;
+        TimingWheel wheel = new TimingWheel(START, 4);
+        wheel.add(1, midnight + 2000);
+        wheel.add(2, midnight - 1000);
+        wheel.add(3, midnight + DueTimes.MINUTE_MS);
+        int[] ids = new int[4];
+        long[] dueTimes = new long[4];
+        wheel.pollDue(midnight - 3000, ids, dueTimes);
+
+        assertEquals(2, wheel.peekDue(midnight + 4000, ids, dueTimes));
+        assertEquals(2, ids[0]);
+        assertEquals(1, ids[1]);
+        assertEquals(midnight + 2000, dueTimes[1]);
+        assertEquals(3, wheel.size());
+        assertEquals(1, wheel.peekDue(midnight + 4000, new int[1], new long[1]));
+        assertEquals(0, wheel.peekDue(midnight - 2000, ids, dueTimes));
+    }
+
+    @Test
+    public void peekDueAt_followsTiesInClusteredBuckets() {
+        long cluster = START + 30 * DueTimes.MINUTE_MS;
+        TimingWheel wheel = new TimingWheel(START, 16);
+        for (int id = 1; id <= 500; id++) {
+            wheel.add(id, cluster);
+        }
+        wheel.add(1000, cluster - 1000);
+        wheel.add(1001, cluster + 2000);
+        assertEquals(cluster - 1000, wheel.peekDueAt());
+
+        wheel.remove(1000);
+        assertEquals(cluster, wheel.peekDueAt());
+        for (int id = 1; id < 500; id++) {
+            wheel.remove(id);
+            assertEquals(cluster, wheel.peekDueAt());
+        }
+        wheel.remove(500);
+        assertEquals(cluster + 2000, wheel.peekDueAt());
+
+        // A passed minute is spliced onto the due list; a one-slot poll leaves 2001 there
+        wheel.add(2000, START + 61000);
+        wheel.add(2001, START + 62000);
+        assertEquals(1, wheel.pollDue(START + 2 * DueTimes.MINUTE_MS, new int[1], new long[1]));
+        assertEquals(START + 62000, wheel.peekDueAt());
+        wheel.add(2002, START - 1000);
+        assertEquals(START - 1000, wheel.peekDueAt());
+        wheel.remove(2002);
+        wheel.remove(2001);
+        assertEquals(cluster + 2000, wheel.peekDueAt());
+    }
+
+    @Test
+    public void cascades_matchReferenceModel() {
+        Random random = new Random(3);
+        long now = START;
+        TimingWheel wheel = new TimingWheel(now, 16);
+        TreeMap<Integer, Long> expected = new TreeMap<>();
+        int[] out = new int[8];
+        long[] dueTimes = new long[8];
+
+        for (int step = 0; step < 200000; step++) {
+            int id = random.nextInt(3000);
+            int op = random.nextInt(10);
+            if (op < 4) {
+                // Mostly near-term, some weeks and months out, a few past the day tier
+                long horizon = op == 0 ? 200L * DueTimes.DAY_MS : op == 1 ? 10 * DueTimes.DAY_MS : 3 * DueTimes.HOUR_MS;
+                long due = now + (long) (random.nextDouble() * horizon);
+                wheel.add(id, due);
+                expected.put(id, due);
+            } else if (op < 5) {
+                assertEquals(expected.remove(id) != null, wheel.remove(id));
+            } else if (op < 9) {
+                long earliest = expected.values().stream().min(Long::compare).orElse(-1L);
+                assertEquals("step " + step, earliest, wheel.peekDueAt());
+            } else {
+                // Sometimes jump ahead by days, as after the device was off
+                now += random.nextInt(20) == 0
+                    ? (long) (random.nextDouble() * 30 * DueTimes.DAY_MS)
+                    : (long) (random.nextDouble() * 20 * DueTimes.MINUTE_MS);
+                int count;
+                do {
+                    count = wheel.pollDue(now, out, dueTimes);
+                    for (int i = 0; i < count; i++) {
+                        Long due = expected.remove(out[i]);
+                        assertNotNull("step " + step, due);
+                        assertEquals("step " + step, (long) due, dueTimes[i]);
+                        assertTrue("step " + step, due <= now);
+                    }
+                } while (count > 0);
+                for (long due : expected.values()) {
+                    assertTrue("step " + step, due > now);
+                }
+            }
+            assertEquals(expected.size(), wheel.size());
+        }
+    }
+
+    @Test
+    public void dueCheck_allocationDoesNotScaleWithReminders() throws Exception {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // Warm up the code paths before measuring
+        checkDay(threads, REMINDERS, new Random(7));
+
+        for (int reminders : new int[]{1000, 10 * REMINDERS}) {
+            long allocated = checkDay(threads, reminders, new Random(reminders));
+            assertTrue("allocated " + allocated + " bytes over a day of checks of " + reminders + " reminders",
+                allocated < DAY_ALLOCATION_BOUND);
+        }
+    }
+    /** A day of per-minute checks fires exactly what a scan over every due time fires. */
+    @Test
+    public void runDay_firesWhatALinearScanFires() {
+        long[] dueTimes = new long[REMINDERS];
+        Random random = new Random(REMINDERS);
+        TimingWheel wheel = new TimingWheel(START, REMINDERS);
+        for (int i = 0; i < REMINDERS; i++) {
+            // Spread over 30 days, so most stay queued past the day
+            dueTimes[i] = START + (long) (random.nextDouble() * 30 * DueTimes.DAY_MS);
+            wheel.add(i, dueTimes[i]);
+        }
+
+        long scanFired = scanDay(dueTimes);
+        assertTrue(scanFired > 0);
+        assertEquals(scanFired, runDay(wheel, new int[16], new long[16]));
+        assertEquals(REMINDERS - scanFired, wheel.size());
+    }
+
+    /**
+     * Runs a day of per-minute ReminderEngine checks, trigger log included,
+     * over {@code reminders} reminders of which DUE_TODAY fall in that day
+     * and the rest later in the month. Returns the bytes allocated by the
+     * checks alone; setting up and loading the engine is not counted.
+     */
+    private long checkDay(com.sun.management.ThreadMXBean threads, int reminders, Random random) throws Exception {
+        ArrayStorage storage = new ArrayStorage(reminders);
+        for (int id = 0; id < reminders; id++) {
+            long offset = id < DUE_TODAY
+                ? (long) (random.nextDouble() * DueTimes.DAY_MS)
+                : DueTimes.DAY_MS + 1 + (long) (random.nextDouble() * 29 * DueTimes.DAY_MS);
+            storage.records[id] = new ReminderRecord(id, "Reminder " + id, "", "", "", false, START + offset, null);
+        }
+        final long[] now = {START};
+        final long[] delivered = {0};
+        ReminderEngine.Sink sink = new ReminderEngine.Sink() {
+            @Override
+            public void deliver(ReminderRecord reminder, long dueAt, long detectedAt) {
+                delivered[0]++;
+            }
+
+            @Override
+            public void onMissed(int reminderId, long dueAt, long at) {
+                fail("missed " + reminderId);
+            }
+        };
+        TriggerLog log = new TriggerLog(folder.newFile(), ReminderEngine.TRIGGER_WINDOW_MS);
+        ReminderEngine engine = new ReminderEngine(() -> now[0], storage, sink, log, new Metrics());
+        assertEquals(reminders, engine.reload());
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (; now[0] <= START + DueTimes.DAY_MS; now[0] += DueTimes.MINUTE_MS) {
+            engine.check();
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        log.close();
+        assertEquals(DUE_TODAY, delivered[0]);
+        assertEquals(reminders - DUE_TODAY, engine.size());
+        return allocated;
+    }
+
+    // Storage over an array indexed by id, so lookups box nothing and only the engine's allocations count
+    private static class ArrayStorage implements ReminderEngine.Storage {
+        final ReminderRecord[] records;
+
+        ArrayStorage(int size) {
+            records = new ReminderRecord[size];
+        }
+
+        @Override
+        public void forEachRecord(ReminderStore.RecordVisitor visitor) {
+            for (ReminderRecord record : records) {
+                visitor.visit(record.id, record.dueAt, ReminderStore.FLAG_LIVE);
+            }
+        }
+
+        @Override
+        public long advanceRecurrence(int reminderId, long pastDueAt, long now) {
+            return -1;
+        }
+
+        @Override
+        public ReminderRecord find(int reminderId) {
+            return records[reminderId];
+        }
+
+        @Override
+        public long generation() {
+            return 1;
+        }
+    }
+
+    // One check per minute across the day, like the alarm-driven service
+    private static long runDay(TimingWheel wheel, int[] out, long[] dueTimes) {
+        long fired = 0;
+        for (long now = START; now <= START + DueTimes.DAY_MS; now += DueTimes.MINUTE_MS) {
+            int count;
+            do {
+                count = wheel.pollDue(now, out, dueTimes);
+                for (int i = 0; i < count; i++) {
+                    if (now - dueTimes[i] <= WINDOW_MS) {
+                        fired++;
+                    }
+                }
+            } while (count > 0);
+        }
+        return fired;
+    }
+
+    private static long scanDay(long[] dueTimes) {
+        boolean[] fired = new boolean[dueTimes.length];
+        long count = 0;
+        for (long now = START; now <= START + DueTimes.DAY_MS; now += DueTimes.MINUTE_MS) {
+            for (int i = 0; i < dueTimes.length; i++) {
+                long late = now - dueTimes[i];
+                if (!fired[i] && late >= 0 && late <= WINDOW_MS) {
+                    fired[i] = true;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
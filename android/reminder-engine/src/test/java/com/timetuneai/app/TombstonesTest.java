@@ -0,0 +1,60 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Local unit tests for the persisted Tombstones.
+ */
+public class TombstonesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void savedTombstones_surviveReopen() throws Exception {
+        File path = new File(folder.getRoot(), "tombstones.bin");
+        Tombstones tombstones = new Tombstones(path);
+        assertEquals(-1, tombstones.version(7));
+        tombstones.put(7, 1767225600000L);
+        tombstones.put(8, 5);
+        tombstones.remove(8);
+        tombstones.save();
+
+        Tombstones reopened = new Tombstones(path);
+        assertEquals(1767225600000L, reopened.version(7));
+        assertEquals(-1, reopened.version(8));
+        assertEquals(1, reopened.size());
+    }
+
+    @Test
+    public void prune_dropsOnlyIdsTheStoreNoLongerHolds() throws Exception {
+        ReminderStore store = new ReminderStore(folder.newFolder());
+        store.put(2, -1, 0, ReminderStore.PRIORITY_MEDIUM, ReminderStore.CATEGORY_PERSONAL, 9, "{\"id\":2}");
+        File path = new File(folder.getRoot(), "tombstones.bin");
+        Tombstones tombstones = new Tombstones(path);
+        tombstones.put(1, 4);
+        tombstones.put(2, 6);
+
+        assertEquals(1, tombstones.prune(store));
+        assertEquals(-1, tombstones.version(1));
+        assertEquals(6, tombstones.version(2));
+        tombstones.save();
+        assertEquals(1, new Tombstones(path).size());
+    }
+
+    @Test
+    public void unreadableFile_startsEmpty() throws Exception {
+        File path = new File(folder.getRoot(), "tombstones.bin");
+        try (FileOutputStream out = new FileOutputStream(path)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+        assertEquals(0, new Tombstones(path).size());
+    }
+}
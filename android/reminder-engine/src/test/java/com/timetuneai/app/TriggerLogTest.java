@@ -0,0 +1,63 @@
+package com.timetuneai.app;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Local unit tests for the persisted TriggerLog.
+ */
+public class TriggerLogTest {
+    private static final long RETENTION_MS = 120000;
+    private static final long NOW = 1767225600000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void record_isKeyedByOccurrenceAndSurvivesReopen() throws Exception {
+        File path = new File(folder.getRoot(), "trigger_log.bin");
+        TriggerLog log = new TriggerLog(path, RETENTION_MS);
+        log.record(7, NOW, NOW);
+        assertTrue(log.contains(7, NOW, NOW + 1000));
+        assertFalse(log.contains(7, NOW + 60000, NOW + 1000));
+        assertFalse(log.contains(8, NOW, NOW + 1000));
+        log.close();
+
+        TriggerLog reopened = new TriggerLog(path, RETENTION_MS);
+        assertTrue(reopened.contains(7, NOW, NOW + 1000));
+        assertEquals(1, reopened.size(NOW + 1000));
+        reopened.close();
+    }
+
+    @Test
+    public void entries_expireAfterRetention() throws Exception {
+        TriggerLog log = new TriggerLog(folder.newFile(), RETENTION_MS);
+        log.record(1, NOW, NOW);
+        assertTrue(log.contains(1, NOW, NOW + RETENTION_MS));
+        assertFalse(log.contains(1, NOW, NOW + RETENTION_MS + 1));
+        assertEquals(0, log.size(NOW + RETENTION_MS + 1));
+        log.close();
+    }
+
+    @Test
+    public void sizeStaysBoundedUnderLoad() throws Exception {
+        File path = new File(folder.getRoot(), "bounded.bin");
+        TriggerLog log = new TriggerLog(path, RETENTION_MS);
+        long now = NOW;
+        for (int id = 0; id < 100000; id++) {
+            now += 1000;
+            log.record(id, now, now);
+            assertTrue(log.contains(id, now, now));
+        }
+        // Only the last two minutes are still live, and the file never grew
+        assertEquals(121, log.size(now));
+        long length = path.length();
+        log.close();
+        assertEquals(length, path.length());
+    }
+}
@@ -0,0 +1,25 @@
+import { StrictMode } from 'react';
+import { createRoot } from 'react-dom/client';
+import VirtualCallOverlay from './components/VirtualCallOverlay';
+import { reportBootMetrics } from './services/bootMetrics.js';
+import { initCallChannel, sendCallAction } from './services/callChannel.js';
+import './index.css';
+
+// Entry point for the native call screens (call.html). It only mounts the
+// call overlay, which the native side drives over the call channel; routing,
+// auth, the store and the AI services of the main app are left out so a call
+// can paint without booting the whole SPA. Dismiss and snooze go back over
+// the channel, and native applies them to its reminder store.
+reportBootMetrics('call');
+initCallChannel();
+
+createRoot(document.getElementById('root')).render(
+  <StrictMode>
+    <VirtualCallOverlay
+      isVisible={false}
+      reminder={null}
+      onDismiss={(call) => sendCallAction('dismissed', call)}
+      onSnooze={(call) => sendCallAction('snoozed', call)}
+    />
+  </StrictMode>
+);
@@ -3,6 +3,9 @@ import { Phone, PhoneOff, Clock, User, Mic, MicOff, Volume2, VolumeX, CheckCircl
 import { useVoice } from '../hooks/useVoice';
 import { Capacitor } from '@capacitor/core';
 
+const getAnswerGreeting = (reminder) =>
+  `Hi! I'm calling to remind you about ${reminder?.title}. Would you like me to mark this as complete or snooze it for later?`;
+
 const VirtualCallOverlay = ({ 
   isVisible, 
   reminder, 
@@ -78,16 +81,20 @@ const VirtualCallOverlay = ({
   // Expose trigger function globally for Android integration
   useEffect(() => {
     if (typeof window !== 'undefined') {
-      window.triggerVirtualCall = (reminderData) => {
+      window.triggerVirtualCall = (reminderData, options = {}) => {
         console.log('Virtual call triggered from Android:', reminderData);
         
-        // Set the reminder data and show the call
+        // Set the reminder data and show the call, already answered when
+        // the user picked it up on the native call screen
         if (reminderData && !activeCall) {
           setActiveCall(reminderData);
           setIsCallVisible(true);
-          setIsAnswered(false);
+          setIsAnswered(!!options.answered);
           setCallDuration(0);
-          setIsRinging(true);
+          setIsRinging(!options.answered);
+          if (options.answered) {
+            speak(getAnswerGreeting(reminderData));
+          }
         }
       };
       
@@ -106,6 +113,8 @@ const VirtualCallOverlay = ({
         console.log('Snoozing virtual call from Android');
         handleSnooze();
       };
+      
+      window.dispatchEvent(new Event('virtualcallready'));
     }
     
     return () => {
@@ -136,14 +145,13 @@ const VirtualCallOverlay = ({
     
     // Speak a greeting when answered
     if (isSpeakerOn) {
-      const currentReminder = reminder || activeCall;
-      const greeting = `Hi! I'm calling to remind you about ${currentReminder?.title}. Would you like me to mark this as complete or snooze it for later?`;
-      speak(greeting);
+      speak(getAnswerGreeting(reminder || activeCall));
     }
   };
 
   const handleDismiss = () => {
     console.log('Call dismissed');
+    const call = activeCall || reminder;
     stopSpeaking();
     setIsAnswered(false);
     setCallDuration(0);
@@ -152,12 +160,13 @@ const VirtualCallOverlay = ({
     setIsRinging(false);
     
     if (onDismiss) {
-      onDismiss();
+      onDismiss(call);
     }
   };
 
   const handleSnooze = () => {
     console.log('Call snoozed');
+    const call = activeCall || reminder;
     stopSpeaking();
     setIsAnswered(false);
     setCallDuration(0);
@@ -166,7 +175,7 @@ const VirtualCallOverlay = ({
     setIsRinging(false);
     
     if (onSnooze) {
-      onSnooze();
+      onSnooze(call);
     }
   };
 
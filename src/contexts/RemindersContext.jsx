@@ -1,5 +1,6 @@
-import React, { createContext, useContext, useReducer, useEffect } from 'react';
+import React, { createContext, useContext, useReducer, useEffect, useRef } from 'react';
 import { notificationService } from '../services/notificationService';
+import { nativeReminderSync } from '../services/nativeReminderSync';
 import { Capacitor } from '@capacitor/core';
 
 
@@ -66,6 +67,7 @@ const remindersReducer = (state, action)=> {
       return {
         ...state,
         reminders: action.payload,
+        isLoaded: true,
       };
     default:
       return state;
@@ -73,15 +75,18 @@ const remindersReducer = (state, action)=> {
 };
 
 export const RemindersProvider= ({ children }) => {
-  const [state, dispatch] = useReducer(remindersReducer, { reminders: [] });
+  const [state, dispatch] = useReducer(remindersReducer, { reminders: [], isLoaded: false });
+  // Last list handed to native storage, used to send only what changed
+  const syncedRemindersRef = useRef(null);
 
   useEffect(() => {
+    let loadedReminders = [];
+
     // Load reminders from localStorage on mount
     const savedReminders = localStorage.getItem('reminders');
     if (savedReminders) {
       try {
-        const parsedReminders = JSON.parse(savedReminders);
-        dispatch({ type: 'LOAD_REMINDERS', payload: parsedReminders });
+        loadedReminders = JSON.parse(savedReminders);
       } catch (error) {
         console.error('Error loading reminders from localStorage:', error);
       }
@@ -92,42 +97,37 @@ export const RemindersProvider= ({ children }) => {
       try {
         const nativeReminders = window.AndroidReminders.getReminders();
         if (nativeReminders && nativeReminders !== '[]') {
-          const parsedNativeReminders = JSON.parse(nativeReminders);
-          dispatch({ type: 'LOAD_REMINDERS', payload: parsedNativeReminders });
+          loadedReminders = JSON.parse(nativeReminders);
         }
       } catch (error) {
         console.error('Error loading reminders from native storage:', error);
       }
     }
+
+    dispatch({ type: 'LOAD_REMINDERS', payload: loadedReminders });
   }, []);
 
   // Sync reminders with Android native storage whenever they change
   useEffect(() => {
-    if (Capacitor.isNativePlatform() && window.AndroidReminders && state.reminders.length > 0) {
-      try {
-        const remindersJson = JSON.stringify(state.reminders);
-        window.AndroidReminders.syncReminders(remindersJson);
-        console.log('Reminders synced with Android native storage');
-      } catch (error) {
-        console.error('Error syncing reminders with native storage:', error);
-      }
-    }
-    
-    // Also sync immediately when reminders change (for background service)
-    if (Capacitor.isNativePlatform()) {
-      try {
-        const remindersJson = JSON.stringify(state.reminders);
-        localStorage.setItem('reminders', remindersJson);
-        
-        // Sync with Android SharedPreferences if available
-        if (window.AndroidReminders) {
-          window.AndroidReminders.syncReminders(remindersJson);
+    if (!state.isLoaded || !Capacitor.isNativePlatform()) return;
+
+    try {
+      localStorage.setItem('reminders', JSON.stringify(state.reminders));
+
+      if (nativeReminderSync.isAvailable()) {
+        if (syncedRemindersRef.current === null) {
+          // First pass after loading: hand native the full list once
+          nativeReminderSync.syncAll(state.reminders);
+          console.log('Reminders synced with Android native storage');
+        } else {
+          nativeReminderSync.syncChanges(syncedRemindersRef.current, state.reminders);
         }
-      } catch (error) {
-        console.error('Error syncing reminders for background service:', error);
+        syncedRemindersRef.current = state.reminders;
       }
+    } catch (error) {
+      console.error('Error syncing reminders with native storage:', error);
     }
-  }, [state.reminders]);
+  }, [state.reminders, state.isLoaded]);
 
   const addReminder = (reminder)=> {
     const id =  Math.floor(Date.now() % 2147483647);
@@ -3,6 +3,9 @@ import { useReminders } from '../contexts/RemindersContext';
 import { androidCallService } from '../services/androidCallService';
 import { Capacitor } from '@capacitor/core';
 
+// A coalesced call rings for several reminders; actions apply to each of them
+const sessionIds = (call) => call.sessionIds?.length ? call.sessionIds : [call.id];
+
 export const useVirtualCalling = () => {
   const [activeCall, setActiveCall] = useState(null);
   const [callQueue, setCallQueue] = useState([]);
@@ -97,18 +100,18 @@ export const useVirtualCalling = () => {
     // Call is answered, keep it active for user interaction
   }, [activeCall]);
 
-  const dismissCall = useCallback(() => {
-    console.log('Call dismissed for reminder:', activeCall?.title);
-    if (activeCall) {
+  const dismissCall = useCallback((call = activeCall) => {
+    console.log('Call dismissed for reminder:', call?.title);
+    if (call) {
       // Mark as completed when dismissed
-      toggleComplete(activeCall.id);
+      sessionIds(call).forEach(id => toggleComplete(id));
     }
     setActiveCall(null);
   }, [activeCall, toggleComplete]);
 
-  const snoozeCall = useCallback(() => {
-    console.log('Call snoozed for reminder:', activeCall?.title);
-    if (activeCall) {
+  const snoozeCall = useCallback((call = activeCall) => {
+    console.log('Call snoozed for reminder:', call?.title);
+    if (call) {
       // Snooze for 5 minutes
       const now = new Date();
       const snoozeTime = new Date(now.getTime() + 5 * 60000); // 5 minutes later
@@ -119,7 +122,7 @@ export const useVirtualCalling = () => {
       };
       
       console.log('Snoozing reminder to:', updates.date, updates.time);
-      updateReminder(activeCall.id, updates);
+      sessionIds(call).forEach(id => updateReminder(id, updates));
     }
     setActiveCall(null);
   }, [activeCall, updateReminder]);
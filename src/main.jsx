@@ -9,6 +9,9 @@ import { Provider } from 'react-redux';
 import { store, persistor } from './store/index.jsx';
 import { PersistGate } from 'redux-persist/integration/react';
 import { Toaster } from 'react-hot-toast';
+import { reportBootMetrics } from './services/bootMetrics.js';
+
+reportBootMetrics('main');
 
 // Initialize notification service
 notificationService.initialize().then(() => {
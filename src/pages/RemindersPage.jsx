@@ -25,6 +25,8 @@ const RemindersPage = () => {
     category: 'personal',
     priority: 'medium',
     isRecurring: false,
+    recurrencePattern: 'daily',
+    recurrenceEndDate: '',
   });
   const { reminders, toggleComplete, deleteReminder: removeReminder, addReminder, updateReminder } = useReminders();
 
@@ -64,6 +66,8 @@ const RemindersPage = () => {
       category: reminder.category,
       priority: reminder.priority,
       isRecurring: reminder.isRecurring,
+      recurrencePattern: reminder.recurrencePattern || 'daily',
+      recurrenceEndDate: reminder.recurrenceEndDate || '',
     });
     setShowEditModal(true);
   };
@@ -81,11 +85,11 @@ const RemindersPage = () => {
       return;
     }
 
-    // Validate that the reminder is not set for the past (except test reminders)
+    // Validate that the reminder is not set for the past (except test and recurring reminders)
     const reminderDateTime = new Date(`${formData.date}T${formData.time}`);
     const now = new Date();
     
-    if (reminderDateTime <= now && !formData.title.toLowerCase().includes('test')) {
+    if (!formData.isRecurring && reminderDateTime <= now && !formData.title.toLowerCase().includes('test')) {
       alert('Please select a future date and time for your reminder');
       return;
     }
@@ -99,7 +103,8 @@ const RemindersPage = () => {
       priority: formData.priority,
       isCompleted: false,
       isRecurring: formData.isRecurring,
-      recurrencePattern: formData.isRecurring ? 'daily' : '',
+      recurrencePattern: formData.isRecurring ? formData.recurrencePattern : '',
+      recurrenceEndDate: formData.isRecurring ? formData.recurrenceEndDate : '',
     };
 
     console.log('Creating reminder:', reminderData);
@@ -119,11 +124,11 @@ const RemindersPage = () => {
 
     if (!editingReminder) return;
 
-    // Validate that the reminder is not set for the past (except test reminders)
+    // Validate that the reminder is not set for the past (except test and recurring reminders)
     const reminderDateTime = new Date(`${formData.date}T${formData.time}`);
     const now = new Date();
     
-    if (reminderDateTime <= now && !formData.title.toLowerCase().includes('test')) {
+    if (!formData.isRecurring && reminderDateTime <= now && !formData.title.toLowerCase().includes('test')) {
       alert('Please select a future date and time for your reminder');
       return;
     }
@@ -136,7 +141,8 @@ const RemindersPage = () => {
       category: formData.category,
       priority: formData.priority,
       isRecurring: formData.isRecurring,
-      recurrencePattern: formData.isRecurring ? 'daily' : '',
+      recurrencePattern: formData.isRecurring ? formData.recurrencePattern : '',
+      recurrenceEndDate: formData.isRecurring ? formData.recurrenceEndDate : '',
     };
 
     console.log('Updating reminder:', editingReminder.id, updates);
@@ -157,6 +163,8 @@ const RemindersPage = () => {
       category: 'personal',
       priority: 'medium',
       isRecurring: false,
+      recurrencePattern: 'daily',
+      recurrenceEndDate: '',
     });
   };
 
@@ -176,6 +184,16 @@ const RemindersPage = () => {
     }
   };
 
+  const getRecurrenceLabel = (pattern) => {
+    switch (pattern) {
+      case 'weekly': return 'Weekly';
+      case 'weekdays': return 'Weekdays';
+      case 'monthly': return 'Monthly';
+      case 'daily': return 'Daily';
+      default: return 'Recurring';
+    }
+  };
+
   const getCategoryIcon = (category) => {
     switch (category) {
       case 'work': return '💼';
@@ -299,6 +317,34 @@ const RemindersPage = () => {
                 Make this a recurring reminder
               </label>
             </div>
+
+            {formData.isRecurring && (
+              <div className="grid grid-cols-2 gap-3 sm:gap-4">
+                <div>
+                  <label className="block text-sm font-medium text-gray-700 dark:text-gray-300 mb-1 sm:mb-2">Repeats</label>
+                  <select
+                    value={formData.recurrencePattern}
+                    onChange={(e) => handleFormChange('recurrencePattern', e.target.value)}
+                    className="w-full px-3 sm:px-4 py-2.5 sm:py-3 border border-gray-300 dark:border-gray-600 bg-white dark:bg-slate-700 text-gray-900 dark:text-gray-100 rounded-lg sm:rounded-xl focus:outline-none focus:ring-2 focus:ring-orange-500 focus:border-transparent text-sm sm:text-base transition-colors duration-200"
+                  >
+                    <option value="daily">Daily</option>
+                    <option value="weekdays">Weekdays</option>
+                    <option value="weekly">Weekly</option>
+                    <option value="monthly">Monthly</option>
+                  </select>
+                </div>
+                <div>
+                  <label className="block text-sm font-medium text-gray-700 dark:text-gray-300 mb-1 sm:mb-2">Ends</label>
+                  <input
+                    value={formData.recurrenceEndDate}
+                    onChange={(e) => handleFormChange('recurrenceEndDate', e.target.value)}
+                    type="date"
+                    min={formData.date}
+                    className="w-full px-3 sm:px-4 py-2.5 sm:py-3 border border-gray-300 dark:border-gray-600 bg-white dark:bg-slate-700 text-gray-900 dark:text-gray-100 rounded-lg sm:rounded-xl focus:outline-none focus:ring-2 focus:ring-orange-500 focus:border-transparent text-sm sm:text-base transition-colors duration-200"
+                  />
+                </div>
+              </div>
+            )}
           </div>
 
           <div className="flex space-x-2 sm:space-x-3 mt-6 sm:mt-8">
@@ -463,7 +509,7 @@ const RemindersPage = () => {
                     </div>
                     {reminder.isRecurring && (
                       <span className="bg-blue-100 dark:bg-blue-900/30 text-blue-600 dark:text-blue-400 px-1.5 sm:px-2 py-0.5 sm:py-1 rounded-full text-xs font-medium self-start sm:self-auto">
-                        Recurring
+                        {getRecurrenceLabel(reminder.recurrencePattern)}
                       </span>
                     )}
                   </div>
@@ -1,9 +1,40 @@
 import React, { useState } from 'react';
-import { Settings, Bell, Moon, Sun, Volume2, VolumeX, Smartphone, Mail, Globe, Shield, Trash2 } from 'lucide-react';
+import { Settings, Bell, Moon, Sun, Volume2, VolumeX, Smartphone, Mail, Globe, Shield, Trash2, Activity, RefreshCw } from 'lucide-react';
 import AppHeader from '../components/AppHeader';
 import { useTheme } from '../contexts/ThemeContext';
 import { notificationService } from '../services/notificationService';
 import BottomNavigation from '../components/BottomNavigation';
+import { nativeReminderSync } from '../services/nativeReminderSync';
+
+const METRIC_COUNTERS = [
+  ['checks', 'Checks run'],
+  ['remindersScanned', 'Reminders scanned'],
+  ['deliveriesActivity', 'Full-screen calls'],
+  ['deliveriesOverlay', 'Overlay calls'],
+  ['deliveriesNotification', 'Notification only'],
+  ['callsCoalesced', 'Merged into a call'],
+  ['callsPrepared', 'Built ahead of time'],
+  ['remindersMissed', 'Missed'],
+  ['failures', 'Failures'],
+  ['serviceForegroundMs', 'Service running (ms)'],
+  ['serviceIdleMs', 'Service stopped (ms)'],
+];
+
+const METRIC_HISTOGRAMS = [
+  ['checkCpuUs', 'CPU per check', 'µs'],
+  ['parseUs', 'Parse time', 'µs'],
+  ['deliveryMs', 'Call delivery', 'ms'],
+  ['wakeLockIngestMs', 'Wake lock: ingest', 'ms'],
+  ['wakeLockCheckMs', 'Wake lock: check', 'ms'],
+  ['wakeLockPrerollMs', 'Wake lock: pre-roll', 'ms'],
+  ['wakeLockDispatchMs', 'Wake lock: dispatch', 'ms'],
+];
+
+const LATENCY_STRATEGIES = [
+  ['activity', 'Full-screen'],
+  ['overlay', 'Overlay'],
+  ['notification', 'Notification'],
+];
 
 const SettingsPage = () => {
   const { theme, setTheme } = useTheme();
@@ -30,6 +61,14 @@ const SettingsPage = () => {
     },
   });
 
+  const [serviceMetrics, setServiceMetrics] = useState(() => nativeReminderSync.getMetrics());
+  const [latency, setLatency] = useState(() => nativeReminderSync.getLatency());
+
+  const refreshServiceMetrics = () => {
+    setServiceMetrics(nativeReminderSync.getMetrics());
+    setLatency(nativeReminderSync.getLatency());
+  };
+
   const updateSetting = (category, key, value) => {
     setSettings(prev => ({
       ...prev,
@@ -234,6 +273,72 @@ const SettingsPage = () => {
             </div>
           </div>
 
+          {/* Reminder Service Metrics (Android only) */}
+          {serviceMetrics && (
+            <div className="bg-white dark:bg-slate-800 rounded-xl shadow-sm border border-gray-200 dark:border-gray-700 p-6 transition-colors duration-200">
+              <div className="flex items-center justify-between mb-6">
+                <div className="flex items-center space-x-3">
+                  <Activity className="w-6 h-6 text-orange-500" />
+                  <h2 className="text-xl font-semibold text-gray-900 dark:text-gray-100">Reminder Service</h2>
+                </div>
+                <button
+                  onClick={refreshServiceMetrics}
+                  className="p-2 text-gray-500 dark:text-gray-400 hover:text-orange-500 transition-colors"
+                >
+                  <RefreshCw className="w-5 h-5" />
+                </button>
+              </div>
+              <div className="grid grid-cols-2 gap-3 mb-4">
+                {METRIC_COUNTERS.map(([key, label]) => (
+                  <div key={key} className="bg-gray-50 dark:bg-slate-700 rounded-lg p-3">
+                    <p className="text-xs text-gray-600 dark:text-gray-400">{label}</p>
+                    <p className="text-lg font-semibold text-gray-900 dark:text-gray-100">{serviceMetrics.counters[key] ?? 0}</p>
+                  </div>
+                ))}
+              </div>
+              <div className="space-y-2">
+                {METRIC_HISTOGRAMS.map(([key, label, unit]) => {
+                  const histogram = serviceMetrics.histograms[key];
+                  if (!histogram) return null;
+                  return (
+                    <div key={key} className="flex items-center justify-between text-sm">
+                      <span className="text-gray-600 dark:text-gray-400">{label}</span>
+                      <span className="font-mono text-gray-900 dark:text-gray-100">
+                        {histogram.count === 0
+                          ? '—'
+                          : `p50 ${histogram.p50}${unit} · p99 ${histogram.p99}${unit} · max ${histogram.max}${unit}`}
+                      </span>
+                    </div>
+                  );
+                })}
+                {latency?.boot?.alarmArmed && (
+                  <div className="flex items-center justify-between text-sm">
+                    <span className="text-gray-600 dark:text-gray-400">Boot to alarm armed</span>
+                    <span className="font-mono text-gray-900 dark:text-gray-100">
+                      {`p50 ${latency.boot.alarmArmed.p50}ms · p99 ${latency.boot.alarmArmed.p99}ms · max ${latency.boot.alarmArmed.max}ms`}
+                    </span>
+                  </div>
+                )}
+              </div>
+              {latency && (
+                <div className="mt-4 pt-4 border-t border-gray-200 dark:border-gray-700 space-y-2">
+                  <h3 className="font-medium text-gray-900 dark:text-gray-100">Time to ring after due</h3>
+                  {LATENCY_STRATEGIES.map(([key, label]) => {
+                    const ring = latency[key]?.ringVisible;
+                    return (
+                      <div key={key} className="flex items-center justify-between text-sm">
+                        <span className="text-gray-600 dark:text-gray-400">{label}</span>
+                        <span className="font-mono text-gray-900 dark:text-gray-100">
+                          {ring ? `p50 ${ring.p50}ms · p90 ${ring.p90}ms · p99 ${ring.p99}ms` : '—'}
+                        </span>
+                      </div>
+                    );
+                  })}
+                </div>
+              )}
+            </div>
+          )}
+
           {/* Danger Zone */}
           <div className="bg-white dark:bg-slate-800 rounded-xl shadow-sm border border-red-200 dark:border-red-800 p-6 transition-colors duration-200">
             <div className="flex items-center space-x-3 mb-6">
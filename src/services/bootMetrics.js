@@ -0,0 +1,39 @@
+// Startup timings for a bundle, so the main app and the call screen can be
+// compared. Logged with a "[boot]" prefix (the native call WebViews forward
+// console output to logcat) and kept on window.__bootMetrics.
+//
+// parseMs: from the HTML response to the entry module running, which covers
+//          fetching, parsing and evaluating the bundle and its imports.
+// firstPaintMs: first paint of the document, from navigation start.
+export const reportBootMetrics = (bundle) => {
+  const metrics = { bundle, parseMs: null, firstPaintMs: null };
+  if (typeof window === 'undefined' || typeof performance === 'undefined') {
+    return metrics;
+  }
+
+  const navigation = performance.getEntriesByType?.('navigation')?.[0];
+  const responseEnd = navigation ? navigation.responseEnd : 0;
+  metrics.parseMs = Math.round(performance.now() - responseEnd);
+  window.__bootMetrics = metrics;
+
+  const log = () => {
+    console.log(`[boot] ${bundle}: parse ${metrics.parseMs}ms, first paint ${metrics.firstPaintMs ?? 'n/a'}ms`);
+  };
+
+  try {
+    const observer = new PerformanceObserver((list) => {
+      const paint = list.getEntries().find((entry) =>
+        entry.name === 'first-paint' || entry.name === 'first-contentful-paint');
+      if (paint && metrics.firstPaintMs === null) {
+        metrics.firstPaintMs = Math.round(paint.startTime);
+        observer.disconnect();
+        log();
+      }
+    });
+    observer.observe({ type: 'paint', buffered: true });
+  } catch (error) {
+    log();
+  }
+
+  return metrics;
+};
@@ -0,0 +1,61 @@
+// Receives call payloads from the native call screens over a MessagePort.
+// After the page loads, native code posts PORT_MESSAGE carrying one port;
+// every message on that port is a JSON array of { type, ... } entries, so
+// nothing is evaluated as script (see CallChannel.java). Each call shown is
+// acknowledged on the same port for latency tracing, and a dismiss or snooze
+// is reported back so native can complete or reschedule the reminders.
+const PORT_MESSAGE = 'timetuneai-call-port';
+
+const pending = [];
+let overlayReady = false;
+let nativePort = null;
+
+const dispatch = (message) => {
+  switch (message.type) {
+    case 'trigger':
+      window.triggerVirtualCall(message.reminder, { answered: message.answered });
+      nativePort?.postMessage(JSON.stringify({ type: 'ack', id: message.reminder.id }));
+      break;
+    case 'dismiss':
+      window.dismissVirtualCall();
+      break;
+    default:
+      console.warn('Unknown call channel message:', message.type);
+  }
+};
+
+// Messages can arrive before VirtualCallOverlay has registered its handlers
+const receive = (message) => {
+  if (overlayReady && window.triggerVirtualCall) {
+    dispatch(message);
+  } else {
+    pending.push(message);
+  }
+};
+
+export const initCallChannel = () => {
+  window.addEventListener('virtualcallready', () => {
+    overlayReady = true;
+    pending.splice(0).forEach(dispatch);
+  });
+
+  window.addEventListener('message', (event) => {
+    if (event.data !== PORT_MESSAGE || !event.ports || !event.ports[0]) return;
+    nativePort = event.ports[0];
+    nativePort.onmessage = (portEvent) => {
+      try {
+        JSON.parse(portEvent.data).forEach(receive);
+      } catch (error) {
+        console.error('Invalid call channel message:', error);
+      }
+    };
+  });
+};
+
+// Reports the user's dismiss or snooze of a call with every reminder it rang for;
+// native applies it to its reminder store, as the main app's hook does to its own
+export const sendCallAction = (type, call) => {
+  if (!call || !nativePort) return;
+  const sessionIds = call.sessionIds?.length ? call.sessionIds : [call.id];
+  nativePort.postMessage(JSON.stringify({ type, id: call.id, sessionIds }));
+};
@@ -0,0 +1,121 @@
+import { Capacitor } from '@capacitor/core';
+
+// Pushes reminder changes to the Android native store one reminder at a time.
+// Every call carries a strictly increasing version so native can drop stale updates.
+export class NativeReminderSync {
+  static instance;
+  lastVersion = 0;
+
+  static getInstance() {
+    if (!NativeReminderSync.instance) {
+      NativeReminderSync.instance = new NativeReminderSync();
+    }
+    return NativeReminderSync.instance;
+  }
+
+  get bridge() {
+    return Capacitor.isNativePlatform() ? window.AndroidReminders : undefined;
+  }
+
+  isAvailable() {
+    return !!this.bridge;
+  }
+
+  supportsDeltas() {
+    return !!(this.bridge && this.bridge.upsertReminder);
+  }
+
+  nextVersion() {
+    this.lastVersion = Math.max(Date.now(), this.lastVersion + 1);
+    return this.lastVersion;
+  }
+
+  // Replace everything on the native side (initial sync)
+  syncAll(reminders) {
+    if (!this.isAvailable()) return;
+    this.bridge.syncReminders(JSON.stringify(reminders));
+  }
+
+  upsert(reminder) {
+    if (!this.supportsDeltas()) return false;
+    return this.bridge.upsertReminder(JSON.stringify(reminder), this.nextVersion());
+  }
+
+  remove(id) {
+    if (!this.supportsDeltas()) return false;
+    return this.bridge.deleteReminder(id, this.nextVersion());
+  }
+
+  markCompleted(id, isCompleted) {
+    if (!this.supportsDeltas()) return false;
+    return this.bridge.markCompleted(id, isCompleted, this.nextVersion());
+  }
+
+  // Counters and histograms from the native reminder service, or null off-device
+  getMetrics() {
+    if (!this.bridge || !this.bridge.getMetrics) return null;
+    try {
+      return JSON.parse(this.bridge.getMetrics());
+    } catch (error) {
+      console.error('Error reading native metrics:', error);
+      return null;
+    }
+  }
+
+  // Trigger latency percentiles per delivery strategy, or null off-device
+  getLatency() {
+    if (!this.bridge || !this.bridge.getLatency) return null;
+    try {
+      return JSON.parse(this.bridge.getLatency());
+    } catch (error) {
+      console.error('Error reading native latency:', error);
+      return null;
+    }
+  }
+
+  // Send only what changed between two reminder lists
+  syncChanges(previous, next) {
+    if (!this.isAvailable()) return;
+    if (!this.supportsDeltas()) {
+      this.syncAll(next);
+      return;
+    }
+
+    const previousById = new Map(previous.map(reminder => [reminder.id, reminder]));
+    let changes = 0;
+
+    next.forEach(reminder => {
+      const before = previousById.get(reminder.id);
+      previousById.delete(reminder.id);
+      if (before === reminder) return;
+
+      if (before && isCompletionOnlyChange(before, reminder)) {
+        this.markCompleted(reminder.id, reminder.isCompleted);
+      } else {
+        this.upsert(reminder);
+      }
+      changes++;
+    });
+
+    previousById.forEach((_, id) => {
+      this.remove(id);
+      changes++;
+    });
+
+    if (changes > 0) {
+      console.log(`Synced ${changes} reminder change(s) with Android native storage`);
+    }
+  }
+}
+
+const isCompletionOnlyChange = (before, after) => {
+  if (before.isCompleted === after.isCompleted) return false;
+  const keys = new Set([...Object.keys(before), ...Object.keys(after)]);
+  for (const key of keys) {
+    if (key === 'isCompleted' || key === 'updatedAt') continue;
+    if (before[key] !== after[key]) return false;
+  }
+  return true;
+};
+
+export const nativeReminderSync = NativeReminderSync.getInstance();
@@ -6,6 +6,9 @@ export interface Reminder {
   date: string;
   isCompleted: boolean;
   isRecurring: boolean;
+  recurrencePattern?: 'daily' | 'weekly' | 'weekdays' | 'monthly' | '';
+  recurrenceEndDate?: string;
+  recurrenceExceptions?: string[];
   category: 'personal' | 'work' | 'health' | 'other';
   priority: 'low' | 'medium' | 'high';
   createdAt: string;
@@ -1,5 +1,6 @@
 import { defineConfig } from 'vite';
 import react from '@vitejs/plugin-react';
+import { fileURLToPath } from 'node:url';
 
 // https://vitejs.dev/config/
 export default defineConfig({
@@ -8,4 +9,13 @@ export default defineConfig({
   optimizeDeps: {
     exclude: ['lucide-react'],
   },
+  build: {
+    rollupOptions: {
+      // call.html is the slim entry loaded by the native call screens
+      input: {
+        main: fileURLToPath(new URL('./index.html', import.meta.url)),
+        call: fileURLToPath(new URL('./call.html', import.meta.url)),
+      },
+    },
+  },
 });